@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+#
+# Measures time-to-first-request of the plain fat jar against the AOT + CDS build.
+#
+#   docker-compose -f docker-compose-mysql.yml up -d
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each variant is started `runs` times (default 5). A run ends at the first 200 answered by
+# GET /api/employees/stats, measured from the moment the JVM was launched.
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+URL="http://localhost:${PORT}/api/employees/stats"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="${ROOT}/target/demo-testing-0.0.1-SNAPSHOT.jar"
+CDS_JAR="${ROOT}/target/cds/demo-testing-0.0.1-SNAPSHOT-cds.jar"
+CDS_ARCHIVE="${ROOT}/target/cds/application.jsa"
+
+cd "${ROOT}"
+./mvnw -B -q -Pcds -DskipTests package
+
+now_ms() {
+    date +%s%3N
+}
+
+measure() {
+    local label="$1"
+    shift
+    local total=0
+    for ((run = 1; run <= RUNS; run++)); do
+        local started
+        started="$(now_ms)"
+        java "$@" --server.port="${PORT}" > /dev/null 2>&1 &
+        local pid=$!
+        until curl -sf -o /dev/null "${URL}"; do
+            if ! kill -0 "${pid}" 2> /dev/null; then
+                echo "${label}: application exited before serving a request" >&2
+                exit 1
+            fi
+            sleep 0.02
+        done
+        local elapsed=$(($(now_ms) - started))
+        kill "${pid}"
+        wait "${pid}" 2> /dev/null || true
+        total=$((total + elapsed))
+        printf '%-10s run %d: %5d ms\n' "${label}" "${run}" "${elapsed}"
+    done
+    printf '%-10s mean:  %5d ms\n\n' "${label}" $((total / RUNS))
+}
+
+measure "baseline" -jar "${JAR}"
+measure "aot+cds" -XX:SharedArchiveFile="${CDS_ARCHIVE}" -Dspring.aot.enabled=true -jar "${CDS_JAR}"
@@ -0,0 +1,108 @@
+package com.henry.demotesting.compression;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.json.EmployeeJsonConverter;
+import com.henry.demotesting.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The JSON body of {@code GET /api/employees}, kept ready gzip- and deflate-compressed.
+ * <p>
+ * Any {@link EmployeeChangedEvent} or import bumps a generation counter, and the next request
+ * re-serializes and re-compresses the list once; until then downloads are served from the stored
+ * bytes. {@code app.compression.list-max-age} bounds how long writes that bypass the service
+ * can go unnoticed. Lists below {@code server.compression.min-response-size} are not stored and
+ * take the regular serialization path.
+ */
+@Component
+public class CompressedEmployeeList {
+
+    /**
+     * A compressed copy of the list and the {@code Content-Encoding} it is in.
+     */
+    public record Compressed(String coding, byte[] body) {
+    }
+
+    private record Entry(long generation, long builtAtNanos, byte[] gzipped, byte[] deflated) {
+    }
+
+    private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final int minResponseSize;
+    private final long maxAgeNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Entry entry;
+
+    public CompressedEmployeeList(EmployeeService employeeService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                  @Value("${app.compression.list-max-age:PT1M}") Duration maxAge) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.minResponseSize = (int) minResponseSize.toBytes();
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    @EventListener({EmployeeChangedEvent.class, EmployeesImportedEvent.class})
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * The list in the coding the client prefers, if it accepts gzip or deflate and the list is
+     * large enough to be worth compressing.
+     */
+    public Optional<Compressed> compressed(String acceptEncoding) {
+        Optional<String> coding = ContentCoding.negotiate(acceptEncoding);
+        if (coding.isEmpty()) {
+            return Optional.empty();
+        }
+        Entry current = entry;
+        if (!isFresh(current)) {
+            current = rebuild();
+        }
+        byte[] body = coding.get().equals(ContentCoding.GZIP) ? current.gzipped() : current.deflated();
+        return Optional.ofNullable(body).map(bytes -> new Compressed(coding.get(), bytes));
+    }
+
+    private boolean isFresh(Entry current) {
+        return current != null
+                && current.generation() == generation.get()
+                && System.nanoTime() - current.builtAtNanos() < maxAgeNanos;
+    }
+
+    private synchronized Entry rebuild() {
+        Entry current = entry;
+        if (isFresh(current)) {
+            return current;
+        }
+        // Read the generation first: a write landing during the rebuild leaves the entry stale.
+        long builtFor = generation.get();
+        long builtAt = System.nanoTime();
+        var json = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            EmployeeJsonConverter.writeEmployees(generator, employeeService.getEmployees());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        byte[] bytes = json.toByteArray();
+        boolean small = bytes.length < minResponseSize;
+        Entry fresh = new Entry(builtFor, builtAt, small ? null : ContentCoding.gzip(bytes),
+                small ? null : ContentCoding.deflate(bytes));
+        entry = fresh;
+        return fresh;
+    }
+}
@@ -0,0 +1,89 @@
+package com.henry.demotesting.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code Content-Encoding}s the cached employee list is kept in: gzip, and deflate (the
+ * zlib format, as HTTP defines it).
+ */
+final class ContentCoding {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentCoding() {
+    }
+
+    /**
+     * The coding an {@code Accept-Encoding} header prefers, by quality, naming it or through
+     * {@code *}; gzip on a tie. Codings with {@code q=0} are refused.
+     */
+    static Optional<String> negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return Optional.empty();
+        }
+        double gzip = -1;
+        double deflate = -1;
+        double any = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            switch (coding) {
+                case GZIP -> gzip = quality(tokens);
+                case DEFLATE -> deflate = quality(tokens);
+                case "*" -> any = quality(tokens);
+                default -> {
+                }
+            }
+        }
+        gzip = gzip >= 0 ? gzip : any;
+        deflate = deflate >= 0 ? deflate : any;
+        if (gzip <= 0 && deflate <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(gzip >= deflate ? GZIP : DEFLATE);
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        var compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (OutputStream out = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            out.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    static byte[] deflate(byte[] bytes) {
+        var compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (OutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
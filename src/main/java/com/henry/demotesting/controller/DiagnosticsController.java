@@ -0,0 +1,90 @@
+package com.henry.demotesting.controller;
+
+import com.henry.demotesting.jdbc.SqlLogListener;
+import com.henry.demotesting.model.PoolStatus;
+import com.henry.demotesting.model.PurgeStats;
+import com.henry.demotesting.model.RequestTrace;
+import com.henry.demotesting.model.SnapshotFootprint;
+import com.henry.demotesting.model.SqlShapeStats;
+import com.henry.demotesting.model.WarmupReport;
+import com.henry.demotesting.pool.PoolMonitor;
+import com.henry.demotesting.purge.TombstonePurger;
+import com.henry.demotesting.snapshot.EmployeeSnapshot;
+import com.henry.demotesting.snapshot.SnapshotWarmup;
+import com.henry.demotesting.trace.Tracer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final EmployeeSnapshot employeeSnapshot;
+    private final SqlLogListener sqlLogListener;
+    private final TombstonePurger tombstonePurger;
+    private final SnapshotWarmup snapshotWarmup;
+    private final Tracer tracer;
+    private final PoolMonitor poolMonitor;
+
+    public DiagnosticsController(EmployeeSnapshot employeeSnapshot,
+                                 SqlLogListener sqlLogListener,
+                                 TombstonePurger tombstonePurger,
+                                 SnapshotWarmup snapshotWarmup,
+                                 Tracer tracer,
+                                 PoolMonitor poolMonitor) {
+        this.employeeSnapshot = employeeSnapshot;
+        this.sqlLogListener = sqlLogListener;
+        this.tombstonePurger = tombstonePurger;
+        this.snapshotWarmup = snapshotWarmup;
+        this.tracer = tracer;
+        this.poolMonitor = poolMonitor;
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<SnapshotFootprint> getSnapshotFootprint(){
+        return employeeSnapshot.footprint()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupReport> getWarmupReport(){
+        return snapshotWarmup.report()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/sql")
+    public List<SqlShapeStats> getSqlShapeStats(){
+        return sqlLogListener.shapeStats();
+    }
+
+    @GetMapping("/purge")
+    public PurgeStats getPurgeStats(){
+        return tombstonePurger.stats();
+    }
+
+    @GetMapping("/pool")
+    public ResponseEntity<PoolStatus> getPoolStatus(){
+        return poolMonitor.status()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/traces")
+    public Map<String, List<RequestTrace>> getSlowestTraces(){
+        return tracer.slowest();
+    }
+
+    @DeleteMapping("/traces")
+    public ResponseEntity<Void> resetTraces(){
+        tracer.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
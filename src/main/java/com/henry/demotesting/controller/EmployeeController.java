@@ -1,34 +1,145 @@
 package com.henry.demotesting.controller;
 
+import com.henry.demotesting.compression.CompressedEmployeeList;
+import com.henry.demotesting.idempotency.IdempotencyStore;
+import com.henry.demotesting.json.EmployeeStreamWriter;
+import com.henry.demotesting.model.ChangePage;
 import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeStats;
+import com.henry.demotesting.model.ImportReport;
+import com.henry.demotesting.service.EmployeeBulkService;
+import com.henry.demotesting.service.EmployeeImportService;
 import com.henry.demotesting.service.EmployeeService;
+import com.henry.demotesting.trace.Traced;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
+@Traced
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
+    private final EmployeeBulkService employeeBulkService;
+    private final IdempotencyStore idempotencyStore;
+    private final EmployeeStreamWriter employeeStreamWriter;
+    private final CompressedEmployeeList compressedEmployeeList;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService,
+                              EmployeeImportService employeeImportService,
+                              EmployeeBulkService employeeBulkService,
+                              IdempotencyStore idempotencyStore,
+                              EmployeeStreamWriter employeeStreamWriter,
+                              CompressedEmployeeList compressedEmployeeList) {
         this.employeeService = employeeService;
+        this.employeeImportService = employeeImportService;
+        this.employeeBulkService = employeeBulkService;
+        this.idempotencyStore = idempotencyStore;
+        this.employeeStreamWriter = employeeStreamWriter;
+        this.compressedEmployeeList = compressedEmployeeList;
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<Employee> createEmployee(@RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+                                                   @RequestBody Employee employee){
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED);
+        }
+        return idempotencyStore.execute(idempotencyKey, HttpMethod.POST, employee,
+                () -> new ResponseEntity<>(employeeService.saveEmployee(employee), HttpStatus.CREATED));
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public ImportReport importEmployees(InputStream csv){
+        return employeeImportService.importCsv(csv);
+    }
+
+    @PostMapping(path = "/_bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulk(InputStream operations, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        employeeBulkService.execute(operations, response.getOutputStream());
     }
 
+    // JSON clients accepting gzip or deflate get the pre-compressed copy, written directly (the
+    // null return tells Spring the response is handled); server.compression then leaves it alone.
+    // Everyone else takes the typed path, so EmployeeJsonConverter writes the list.
     @GetMapping
-    public List<Employee> getAllEmployees(){
+    public ResponseEntity<List<Employee>> getAllEmployees(@RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = "*/*") String accept,
+                                                          @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                          HttpServletResponse response) throws IOException {
+        Optional<CompressedEmployeeList.Compressed> compressed = acceptsJson(accept)
+                ? compressedEmployeeList.compressed(acceptEncoding) : Optional.empty();
+        if (compressed.isPresent()) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, compressed.get().coding());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            response.setContentLength(compressed.get().body().length);
+            response.getOutputStream().write(compressed.get().body());
+            return null;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(employeeService.getEmployees());
+    }
+
+    private static boolean acceptsJson(String accept) {
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.getQualityValue() > 0 && type.isCompatibleWith(MediaType.APPLICATION_JSON));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_CBOR_VALUE, EmployeeStreamWriter.SMILE_VALUE})
+    public List<Employee> getAllEmployeesBinary(){
         return employeeService.getEmployees();
     }
 
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = "*/*") String accept){
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+        return employeeStreamWriter.negotiate(acceptable)
+                .map(mediaType -> ResponseEntity.ok()
+                        .contentType(mediaType)
+                        .body(employeeStreamWriter.write(employeeService::streamEmployees, mediaType)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build());
+    }
+
+    @GetMapping("/search")
+    public List<Employee> searchEmployees(@RequestParam("q") String query){
+        return employeeService.searchEmployees(query);
+    }
+
+    @GetMapping("/stats")
+    public EmployeeStats getEmployeeStats(){
+        return employeeService.getStats();
+    }
+
+    @GetMapping("/changes-since")
+    public ChangePage getChangesSince(@RequestParam(name = "token", required = false) String token,
+                                      @RequestParam(name = "limit", defaultValue = "500") int limit){
+        return employeeService.getChangesSince(token, limit);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Employee> findEmployeeId(@PathVariable Long id){
         return employeeService.findById(id)
@@ -41,10 +152,12 @@ public class EmployeeController {
                                                    @RequestBody Employee employee){
         return employeeService.findById(id)
                 .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
-                    var updEmployee = employeeService.updateEmployee(savedEmployee);
+                    var changes = savedEmployee.toBuilder()
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .build();
+                    var updEmployee = employeeService.updateEmployee(changes);
                     return  new ResponseEntity<>(updEmployee, HttpStatus.OK);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
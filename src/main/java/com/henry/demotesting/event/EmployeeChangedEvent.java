@@ -0,0 +1,30 @@
+package com.henry.demotesting.event;
+
+import com.henry.demotesting.model.Employee;
+
+/**
+ * Published by the service layer after an employee write has been committed.
+ * <p>
+ * {@code previous} and {@code current} are detached copies, so listeners can keep them without
+ * being affected by later changes to the managed entity.
+ */
+public record EmployeeChangedEvent(Type type, Employee previous, Employee current) {
+
+    public enum Type {CREATED, UPDATED, DELETED}
+
+    public static EmployeeChangedEvent created(Employee current) {
+        return new EmployeeChangedEvent(Type.CREATED, null, copy(current));
+    }
+
+    public static EmployeeChangedEvent updated(Employee previous, Employee current) {
+        return new EmployeeChangedEvent(Type.UPDATED, copy(previous), copy(current));
+    }
+
+    public static EmployeeChangedEvent deleted(Employee previous) {
+        return new EmployeeChangedEvent(Type.DELETED, copy(previous), null);
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.henry.demotesting.event;
+
+/**
+ * Published after a bulk load wrote rows directly over JDBC, without per-row
+ * {@link EmployeeChangedEvent}s. Listeners holding derived state should rebuild it.
+ */
+public record EmployeesImportedEvent(long rowsImported) {
+}
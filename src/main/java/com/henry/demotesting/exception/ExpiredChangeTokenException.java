@@ -0,0 +1,15 @@
+package com.henry.demotesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The token predates the tombstone retention window, so deletes since then may already have been
+ * purged. The client has to start over with a full sync.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class ExpiredChangeTokenException extends RuntimeException {
+    public ExpiredChangeTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.henry.demotesting.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidChangeTokenException extends RuntimeException {
+    public InvalidChangeTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidChangeTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
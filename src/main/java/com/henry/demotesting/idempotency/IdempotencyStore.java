@@ -0,0 +1,177 @@
+package com.henry.demotesting.idempotency;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the first response produced for an {@code Idempotency-Key} so that client retries
+ * are answered from memory instead of running the request again.
+ * <p>
+ * Entries are kept in insertion order, expire after a fixed TTL and the oldest ones are dropped
+ * once {@code maxEntries} is reached. Entries whose request is still running are never dropped,
+ * or a retry would run it a second time; the store can exceed its bound by the number of requests
+ * in flight. A request arriving while the first one with the same key is still running waits for
+ * its outcome. Failed requests are not remembered, so they can be retried.
+ * <p>
+ * Each entry keeps a SHA-256 digest of the method and request body it was created for. Reusing a
+ * key for a different request is a client bug, answered with 422 rather than the first response.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long waitTimeoutMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(@Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl:PT10M}") Duration ttl,
+                            @Value("${app.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.waitTimeoutMillis = waitTimeout.toMillis();
+    }
+
+    /**
+     * Runs {@code action} once per key and replays its response to retries.
+     *
+     * @param request the request body, compared by its {@code toString()}, which must cover every
+     *                field the action reads (records and Lombok {@code @Data} classes do)
+     */
+    public <T> ResponseEntity<T> execute(String key, HttpMethod method, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        byte[] fingerprint = fingerprint(method, request);
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            long now = System.nanoTime();
+            evictExpired(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(now, fingerprint);
+                entries.put(key, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+
+        if (!owner) {
+            if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+            }
+            return replay(entry);
+        }
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.result.complete(response);
+            return response;
+        } catch (Throwable ex) {
+            // Errors too: an entry left incomplete would answer 409 to every retry until the TTL.
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry) {
+        ResponseEntity<?> original;
+        try {
+            original = entry.result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with the same " + HEADER + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting", ex);
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body((T) original.getBody());
+    }
+
+    private static byte[] fingerprint(HttpMethod method, Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(method.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return digest.digest(String.valueOf(request).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (now - entry.createdAt <= ttlNanos) {
+                return;
+            }
+            if (entry.result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            if (it.next().result.isDone()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final long createdAt;
+        private final byte[] fingerprint;
+        private final CompletableFuture<ResponseEntity<?>> result = new CompletableFuture<>();
+
+        private Entry(long createdAt, byte[] fingerprint) {
+            this.createdAt = createdAt;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.henry.demotesting.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a {@link DataSource} in proxies down to the statement level and reports every
+ * execution, with its bind parameters and elapsed time, to {@link StatementListener}s.
+ * Everything else, including {@code unwrap}, is passed straight to the pooled objects.
+ * <p>
+ * The data source itself gets a class-based proxy, so the bean keeps its type: it can still be
+ * injected as a {@code HikariDataSource}, and its {@code close()} is still found as the destroy
+ * method. Connections and statements get JDK proxies of their JDBC interfaces.
+ */
+public final class InstrumentedDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private InstrumentedDataSource() {
+    }
+
+    public static DataSource wrap(DataSource target, Supplier<List<StatementListener>> listeners) {
+        var factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new ConnectionInterceptor(listeners));
+        return (DataSource) factory.getProxy();
+    }
+
+    public static boolean isInstrumented(Object candidate) {
+        if (candidate instanceof Advised advised) {
+            for (Advisor advisor : advised.getAdvisors()) {
+                if (advisor.getAdvice() instanceof ConnectionInterceptor) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+
+        final Object target;
+        final Supplier<List<StatementListener>> listeners;
+
+        DelegatingHandler(Object target, Supplier<List<StatementListener>> listeners) {
+            this.target = target;
+            this.listeners = listeners;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "Instrumented[" + target + "]";
+                default -> handle(method, args);
+            };
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class ConnectionInterceptor implements MethodInterceptor {
+
+        private final Supplier<List<StatementListener>> listeners;
+
+        ConnectionInterceptor(Supplier<List<StatementListener>> listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object result = invocation.proceed();
+            if (result instanceof Connection connection && invocation.getMethod().getName().equals("getConnection")) {
+                return proxy(Connection.class, new ConnectionHandler(connection, listeners));
+            }
+            return result;
+        }
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(Connection target, Supplier<List<StatementListener>> listeners) {
+            super(target, listeners);
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], true, listeners));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], true, listeners));
+                case "createStatement" -> proxy(Statement.class,
+                        new StatementHandler((Statement) result, null, false, listeners));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+
+        private static final Object[] NO_PARAMETERS = new Object[0];
+
+        private final boolean prepared;
+        private String sql;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql, boolean prepared, Supplier<List<StatementListener>> listeners) {
+            super(target, listeners);
+            this.sql = sql;
+            this.prepared = prepared;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args, name.endsWith("Batch"));
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameterCount = 0;
+            } else if (name.equals("addBatch")) {
+                if (args != null && args.length == 1) {
+                    sql = (String) args[0];
+                }
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args, boolean batch) throws Throwable {
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long started = System.nanoTime();
+            Throwable failure = null;
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } catch (Throwable ex) {
+                failure = ex;
+                throw ex;
+            } finally {
+                notify(new StatementExecution(executed, boundParameters(), batch ? batchSize : 0,
+                        System.nanoTime() - started, failure, prepared));
+                if (batch) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private List<Object> boundParameters() {
+            return parameterCount == 0 ? List.of()
+                    : Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(parameters, parameterCount)));
+        }
+
+        private void notify(StatementExecution execution) {
+            for (StatementListener listener : listeners.get()) {
+                try {
+                    listener.afterExecute(execution);
+                } catch (RuntimeException ex) {
+                    log.debug("Statement listener {} failed", listener, ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.henry.demotesting.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Configuration(proxyBeanMethods = false)
+public class JdbcInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        Supplier<List<StatementListener>> lookup = new Supplier<>() {
+            private volatile List<StatementListener> resolved;
+
+            @Override
+            public List<StatementListener> get() {
+                List<StatementListener> current = resolved;
+                if (current == null) {
+                    current = listeners.orderedStream().toList();
+                    resolved = current;
+                }
+                return current;
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !InstrumentedDataSource.isInstrumented(bean)) {
+                    return InstrumentedDataSource.wrap(dataSource, lookup);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,178 @@
+package com.henry.demotesting.jdbc;
+
+import com.henry.demotesting.model.SqlShapeStats;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Replacement for {@code spring.jpa.show-sql}. The request thread only updates per-shape counters
+ * and, for sampled, slow or failed statements, offers the execution to a bounded ring buffer. A
+ * background thread formats and writes the log lines. When the buffer is full, entries are dropped
+ * and counted instead of blocking the caller.
+ */
+@Component
+public class SqlLogListener implements StatementListener {
+
+    private static final Logger log = LoggerFactory.getLogger("sql");
+    private static final String OTHER_SHAPE = "(other)";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int maxShapes;
+    private final BlockingQueue<StatementExecution> buffer;
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final Map<String, Shape> preparedShapes = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    public SqlLogListener(@Value("${app.sql-log.enabled:true}") boolean enabled,
+                          @Value("${app.sql-log.sample-rate:0.01}") double sampleRate,
+                          @Value("${app.sql-log.slow-threshold:PT0.2S}") Duration slowThreshold,
+                          @Value("${app.sql-log.buffer-size:1024}") int bufferSize,
+                          @Value("${app.sql-log.max-shapes:500}") int maxShapes) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.writer = Thread.ofPlatform().daemon().name("sql-log-writer").unstarted(this::drain);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        if (!enabled) {
+            return;
+        }
+        shape(execution).record(execution);
+
+        boolean slow = execution.elapsedNanos() >= slowThresholdNanos;
+        if ((slow || execution.failure() != null || ThreadLocalRandom.current().nextDouble() < sampleRate)
+                && !buffer.offer(execution)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public List<SqlShapeStats> shapeStats() {
+        var stats = new ArrayList<SqlShapeStats>(shapes.size());
+        shapes.forEach((sql, shape) -> stats.add(shape.toStats(sql)));
+        stats.sort(Comparator.comparingDouble(SqlShapeStats::totalMillis).reversed());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.interrupt();
+        writer.join(1000);
+    }
+
+    public static String shapeOf(StatementExecution execution) {
+        String sql = execution.sql() == null ? "" : execution.sql();
+        if (!execution.prepared()) {
+            sql = NUMBER_LITERAL.matcher(STRING_LITERAL.matcher(sql).replaceAll("?")).replaceAll("?");
+        }
+        return WHITESPACE.matcher(sql).replaceAll(" ").trim();
+    }
+
+    private Shape shape(StatementExecution execution) {
+        if (!execution.prepared() || execution.sql() == null) {
+            return byShape(shapeOf(execution));
+        }
+        // Prepared SQL from Hibernate is a small fixed set of strings, so skip normalizing it again.
+        Shape shape = preparedShapes.get(execution.sql());
+        if (shape == null) {
+            shape = byShape(shapeOf(execution));
+            if (preparedShapes.size() < maxShapes) {
+                preparedShapes.put(execution.sql(), shape);
+            }
+        }
+        return shape;
+    }
+
+    private Shape byShape(String key) {
+        if (shapes.size() >= maxShapes && !shapes.containsKey(key)) {
+            key = OTHER_SHAPE;
+        }
+        return shapes.computeIfAbsent(key, k -> new Shape());
+    }
+
+    private void drain() {
+        var batch = new ArrayList<StatementExecution>(64);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(buffer.take());
+                buffer.drainTo(batch, 63);
+                batch.forEach(this::write);
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        buffer.drainTo(batch);
+        batch.forEach(this::write);
+        if (dropped.get() > 0) {
+            log.warn("{} statement log entries were dropped because the buffer was full", dropped.get());
+        }
+    }
+
+    private void write(StatementExecution execution) {
+        double millis = execution.elapsedNanos() / 1_000_000.0;
+        if (execution.failure() != null) {
+            log.warn("failed after {} ms: {} {} -> {}", String.format("%.3f", millis), execution.sql(),
+                    execution.parameters(), execution.failure().toString());
+        } else if (execution.elapsedNanos() >= slowThresholdNanos) {
+            log.warn("slow {} ms: {} {}{}", String.format("%.3f", millis), execution.sql(), execution.parameters(),
+                    execution.batchSize() > 0 ? " batch=" + execution.batchSize() : "");
+        } else if (log.isInfoEnabled()) {
+            log.info("{} ms: {}{}", String.format("%.3f", millis), execution.sql(),
+                    execution.batchSize() > 0 ? " batch=" + execution.batchSize() : "");
+        }
+    }
+
+    private static final class Shape {
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(StatementExecution execution) {
+            executions.increment();
+            statements.add(execution.statementCount());
+            totalNanos.add(execution.elapsedNanos());
+            maxNanos.accumulateAndGet(execution.elapsedNanos(), Math::max);
+            if (execution.failure() != null) {
+                errors.increment();
+            }
+        }
+
+        private SqlShapeStats toStats(String sql) {
+            long count = executions.sum();
+            double total = totalNanos.sum() / 1_000_000.0;
+            return new SqlShapeStats(sql, count, statements.sum(), errors.sum(),
+                    count == 0 ? 0 : total / count, maxNanos.get() / 1_000_000.0, total);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.henry.demotesting.jdbc;
+
+import java.util.List;
+
+/**
+ * One round trip to the database.
+ *
+ * @param parameters the bind values of the last parameter set, by position
+ * @param batchSize  number of parameter sets sent, {@code 0} for a non-batch execution
+ * @param prepared   whether {@code sql} has placeholders rather than inline literals
+ */
+public record StatementExecution(String sql,
+                                 List<Object> parameters,
+                                 int batchSize,
+                                 long elapsedNanos,
+                                 Throwable failure,
+                                 boolean prepared) {
+
+    public int statementCount() {
+        return Math.max(1, batchSize);
+    }
+}
@@ -0,0 +1,10 @@
+package com.henry.demotesting.jdbc;
+
+/**
+ * Callback for every statement executed through the instrumented {@code DataSource}.
+ * Runs on the executing thread, so implementations must be cheap and must not block.
+ */
+public interface StatementListener {
+
+    void afterExecute(StatementExecution execution);
+}
@@ -0,0 +1,189 @@
+package com.henry.demotesting.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JSON converter for {@link Employee} and {@code List<Employee>} bodies that bypasses Jackson's
+ * bean introspection.
+ * <p>
+ * Employees are written field by field to the response stream through a {@link JsonGenerator},
+ * with the field names pre-encoded once, and read back token by token with a {@link JsonParser}.
+ * Generator and parser buffers come from Jackson's buffer recycler, so steady-state requests do
+ * not allocate new ones. The output is byte-for-byte what the application {@link ObjectMapper}
+ * produces for the same values, and reads follow its lenient defaults (unknown fields are
+ * skipped, scalars are coerced). Being an {@code HttpMessageConverter} bean, it is placed ahead of
+ * the generic Jackson converter; every other type still goes through that one.
+ */
+@Component
+public class EmployeeJsonConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    static final SerializedString LAST_NAME = new SerializedString("lastName");
+    static final SerializedString EMAIL = new SerializedString("email");
+
+    private final JsonFactory jsonFactory;
+
+    public EmployeeJsonConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Employee.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isEmployeeType(ResolvableType.forType(type)) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        boolean supported = type != null ? isEmployeeType(ResolvableType.forType(type)) : supports(clazz);
+        return supported && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        boolean list = ResolvableType.forType(type).resolve() != Employee.class;
+        try (JsonParser parser = jsonFactory.createParser(StreamUtils.nonClosing(inputMessage.getBody()))) {
+            parser.nextToken();
+            return list ? readEmployees(parser) : readEmployee(parser);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + ex.getOriginalMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(
+                StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            if (body instanceof Employee employee) {
+                writeEmployee(generator, employee);
+            } else {
+                writeEmployees(generator, (Collection<?>) body);
+            }
+        }
+    }
+
+    public static void writeEmployees(JsonGenerator generator, Collection<?> employees) throws IOException {
+        generator.writeStartArray();
+        for (Object employee : employees) {
+            writeEmployee(generator, (Employee) employee);
+        }
+        generator.writeEndArray();
+    }
+
+    public static void writeEmployee(JsonGenerator generator, Employee employee) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        if (employee.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(employee.getId());
+        }
+        generator.writeFieldName(FIRST_NAME);
+        generator.writeString(employee.getFirstName());
+        generator.writeFieldName(LAST_NAME);
+        generator.writeString(employee.getLastName());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(employee.getEmail());
+        generator.writeEndObject();
+    }
+
+    static List<Employee> readEmployees(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of employees");
+        }
+        var employees = new ArrayList<Employee>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            employees.add(readEmployee(parser));
+        }
+        return employees;
+    }
+
+    public static Employee readEmployee(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an employee object");
+        }
+        var builder = Employee.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> builder.id(readLong(parser, value));
+                case "firstName" -> builder.firstName(readString(parser, value));
+                case "lastName" -> builder.lastName(readString(parser, value));
+                case "email" -> builder.email(readString(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    private static Long readLong(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getValueAsLong();
+            case VALUE_STRING:
+                try {
+                    return Long.valueOf(parser.getText().trim());
+                } catch (NumberFormatException ex) {
+                    throw new JsonParseException(parser, "Cannot read \"" + parser.getText() + "\" as an id");
+                }
+            default:
+                throw new JsonParseException(parser, "Unexpected " + value + " for an id");
+        }
+    }
+
+    private static String readString(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new JsonParseException(parser, "Unexpected " + value + " for a text field");
+        }
+        return parser.getText();
+    }
+
+    private static boolean isEmployeeType(ResolvableType type) {
+        Class<?> raw = type.resolve();
+        if (raw == Employee.class) {
+            return true;
+        }
+        return (raw == List.class || raw == Collection.class) && type.getGeneric(0).resolve() == Employee.class;
+    }
+}
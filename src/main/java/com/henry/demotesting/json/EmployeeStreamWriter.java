@@ -0,0 +1,88 @@
+package com.henry.demotesting.json;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.henry.demotesting.model.Employee;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes an employee stream as a sequence of top-level values, one per employee: newline
+ * delimited JSON, or back-to-back CBOR / Smile values for binary consumers.
+ * <p>
+ * Rows are encoded with {@link EmployeeJsonConverter#writeEmployee} as they come out of the
+ * stream and flushed every {@link #FLUSH_EVERY} employees, so neither side has to hold the
+ * full list.
+ */
+@Component
+public class EmployeeStreamWriter {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+    static final int FLUSH_EVERY = 500;
+
+    private final Map<MediaType, JsonFactory> factories = new LinkedHashMap<>();
+
+    public EmployeeStreamWriter(ObjectMapper objectMapper) {
+        factories.put(MediaType.APPLICATION_NDJSON, objectMapper.getFactory());
+        factories.put(MediaType.APPLICATION_CBOR, new CBORFactory());
+        factories.put(SMILE, new SmileFactory());
+    }
+
+    /**
+     * Picks the encoding for an {@code Accept} header, preferring NDJSON for wildcards. Empty
+     * when none of the encodings is acceptable.
+     */
+    public Optional<MediaType> negotiate(List<MediaType> accepted) {
+        var byQuality = accepted.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType candidate : byQuality) {
+            for (MediaType supported : factories.keySet()) {
+                if (candidate.isCompatibleWith(supported)) {
+                    return Optional.of(supported);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public StreamingResponseBody write(Supplier<Stream<Employee>> employees, MediaType mediaType) {
+        JsonFactory factory = factories.get(mediaType);
+        boolean newlineDelimited = MediaType.APPLICATION_NDJSON.equals(mediaType);
+        return outputStream -> {
+            try (JsonGenerator generator = factory.createGenerator(
+                    StreamUtils.nonClosing(outputStream), JsonEncoding.UTF8);
+                 Stream<Employee> stream = employees.get()) {
+                if (newlineDelimited) {
+                    // the newline written below separates values; binary generators have no separator
+                    generator.setRootValueSeparator(null);
+                }
+                int written = 0;
+                for (var iterator = stream.iterator(); iterator.hasNext(); ) {
+                    EmployeeJsonConverter.writeEmployee(generator, iterator.next());
+                    if (newlineDelimited) {
+                        generator.writeRaw('\n');
+                    }
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.henry.demotesting.model;
+
+/**
+ * One line of a {@code _bulk} request, e.g.
+ * <pre>
+ * {"op":"create","employee":{"firstName":"Henry","lastName":"Xiloj","email":"henry@gmail.com"}}
+ * {"op":"update","id":5,"employee":{"firstName":"Henry","lastName":"Xiloj","email":"hx@gmail.com"}}
+ * {"op":"delete","id":6}
+ * </pre>
+ *
+ * @param op {@code create}, {@code update} or {@code delete}
+ */
+public record BulkOperation(String op,
+                            Long id,
+                            Employee employee) {
+}
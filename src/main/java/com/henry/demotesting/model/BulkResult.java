@@ -0,0 +1,17 @@
+package com.henry.demotesting.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one {@link BulkOperation}, written in the order the operations were received.
+ *
+ * @param index  zero-based position of the operation in the request
+ * @param status the HTTP status the single-operation endpoint would have answered with
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkResult(long index,
+                         String op,
+                         int status,
+                         Long id,
+                         String error) {
+}
@@ -0,0 +1,12 @@
+package com.henry.demotesting.model;
+
+import java.util.List;
+
+/**
+ * @param nextToken passed as {@code token} on the next call
+ * @param hasMore   whether more changes are available right away with {@code nextToken}
+ */
+public record ChangePage(List<EmployeeChange> changes,
+                         String nextToken,
+                         boolean hasMore) {
+}
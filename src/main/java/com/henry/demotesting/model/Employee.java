@@ -1,17 +1,25 @@
 package com.henry.demotesting.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
+import java.util.Locale;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Entity
 @Table(name = "employees")
+@SQLRestriction("deleted_at is null")
 public class Employee {
 
     @Id
@@ -26,4 +34,40 @@ public class Employee {
 
     @Column(nullable = false)
     private String email;
+
+    // Indexed lookup key behind findByEmail, derived from email whenever the row is written.
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    // Tombstone set by a soft delete; the row stays hidden until TombstonePurger removes it.
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    // Position of the row in the change feed, moved by every write including the soft delete.
+    // Assigned by the database (column default and on update), never by this JVM: see ChangeFeed.
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    public Employee(Long id, String firstName, String lastName, String email) {
+        this(id, firstName, lastName, email, null, null, null);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    /**
+     * The form emails are compared in: surrounding whitespace removed, lower case. Matches
+     * {@code lower(trim(email))} used to backfill existing rows.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
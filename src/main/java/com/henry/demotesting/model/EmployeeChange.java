@@ -0,0 +1,17 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed: the current state of a created or updated employee, or the id
+ * of a deleted one.
+ *
+ * @param employee {@code null} for a {@link Type#DELETE}
+ */
+public record EmployeeChange(Type type,
+                             long id,
+                             Employee employee,
+                             Instant changedAt) {
+
+    public enum Type {UPSERT, DELETE}
+}
@@ -0,0 +1,10 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record EmployeeStats(long total,
+                            Map<String, Long> byEmailDomain,
+                            Map<String, Long> byLastNameInitial,
+                            Instant reconciledAt) {
+}
@@ -0,0 +1,15 @@
+package com.henry.demotesting.model;
+
+import java.util.List;
+
+public record ImportReport(long rowsRead,
+                           long rowsImported,
+                           long rowsRejected,
+                           long elapsedMillis,
+                           double rowsPerSecond,
+                           List<RowError> errors,
+                           boolean errorsTruncated) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+
+public record PoolResizeDecision(Instant at,
+                                 int from,
+                                 int to,
+                                 String reason) {
+}
@@ -0,0 +1,19 @@
+package com.henry.demotesting.model;
+
+import java.util.List;
+
+public record PoolStatus(String poolName,
+                         int active,
+                         int idle,
+                         int total,
+                         int pending,
+                         int maximumPoolSize,
+                         int minimumIdle,
+                         boolean adaptive,
+                         int lowerBound,
+                         int upperBound,
+                         long acquisitionsTotal,
+                         long timeoutsTotal,
+                         PoolWindowStats lastWindow,
+                         List<PoolResizeDecision> decisions) {
+}
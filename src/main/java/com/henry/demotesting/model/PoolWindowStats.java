@@ -0,0 +1,21 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+
+/**
+ * Connection pool activity over one {@code app.pool.adjust-interval}.
+ *
+ * @param averageUsageMillis how long connections were held before being returned
+ * @param peakActive         highest active count seen when a connection was handed out
+ */
+public record PoolWindowStats(Instant endedAt,
+                              double seconds,
+                              long acquisitions,
+                              double averageWaitMillis,
+                              double maxWaitMillis,
+                              long timeouts,
+                              double averageUsageMillis,
+                              long connectionsCreated,
+                              int peakActive,
+                              int peakPending) {
+}
@@ -0,0 +1,11 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+
+public record PurgeStats(long pendingTombstones,
+                         Instant oldestTombstone,
+                         long purgeLagMillis,
+                         long purgedTotal,
+                         Instant lastPurgeAt,
+                         boolean quiet) {
+}
@@ -0,0 +1,15 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param droppedSpans spans not recorded because the trace reached {@code app.tracing.max-spans}
+ */
+public record RequestTrace(String endpoint,
+                           int status,
+                           Instant startedAt,
+                           double durationMillis,
+                           int droppedSpans,
+                           List<TraceSpan> spans) {
+}
@@ -0,0 +1,9 @@
+package com.henry.demotesting.model;
+
+public record SnapshotFootprint(int employees,
+                                int distinctStrings,
+                                long columnarBytes,
+                                double columnarBytesPerEmployee,
+                                long entityBytes,
+                                double entityBytesPerEmployee) {
+}
@@ -0,0 +1,10 @@
+package com.henry.demotesting.model;
+
+public record SqlShapeStats(String sql,
+                            long executions,
+                            long statements,
+                            long errors,
+                            double averageMillis,
+                            double maxMillis,
+                            double totalMillis) {
+}
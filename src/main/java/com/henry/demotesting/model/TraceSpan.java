@@ -0,0 +1,14 @@
+package com.henry.demotesting.model;
+
+/**
+ * One timed step of a {@link RequestTrace}.
+ *
+ * @param depth       nesting level, {@code 0} for the request itself
+ * @param startMillis offset from the start of the request
+ */
+public record TraceSpan(String name,
+                        String detail,
+                        int depth,
+                        double startMillis,
+                        double durationMillis) {
+}
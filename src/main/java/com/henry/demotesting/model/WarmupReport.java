@@ -0,0 +1,9 @@
+package com.henry.demotesting.model;
+
+import java.time.Instant;
+
+public record WarmupReport(String source,
+                           int rowsLoaded,
+                           long durationMillis,
+                           Instant completedAt) {
+}
@@ -0,0 +1,258 @@
+package com.henry.demotesting.pool;
+
+import com.henry.demotesting.model.PoolResizeDecision;
+import com.henry.demotesting.model.PoolStatus;
+import com.henry.demotesting.model.PoolWindowStats;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari telemetry and adaptive pool sizing.
+ * <p>
+ * Installed as the pool's {@link MetricsTrackerFactory} by {@link PoolMonitorConfig}, it records
+ * how long callers waited for a connection, how long they held it, and timeouts, in windows of
+ * {@code app.pool.adjust-interval}. At the end of each window the maximum pool size is adjusted
+ * through the pool's {@link HikariConfigMXBean}, between {@code app.pool.min-size} and
+ * {@code app.pool.max-size}:
+ * <ul>
+ *     <li>it grows when the average wait passes {@code app.pool.grow-wait-threshold} or a
+ *     caller timed out, unless connections are also being held noticeably longer than when the
+ *     pool was last uncontended, which points at a saturated database that more connections
+ *     would only slow down further. A rise that lasts {@link #MAX_CONSECUTIVE_HOLDS} windows is
+ *     taken as the new normal, such as a larger table or a changed plan, and becomes the baseline;</li>
+ *     <li>it shrinks by one when waits are below {@code app.pool.shrink-wait-threshold} and the
+ *     peak number of active connections left headroom.</li>
+ * </ul>
+ */
+@Component
+public class PoolMonitor implements MetricsTrackerFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolMonitor.class);
+
+    static final int GROW_STEP = 2;
+    static final int SHRINK_STEP = 1;
+    // Usage time above this multiple of the uncontended baseline counts as database saturation.
+    static final double LATENCY_TOLERANCE = 1.5;
+    // Contended windows held back in a row before the higher usage time becomes the baseline.
+    static final int MAX_CONSECUTIVE_HOLDS = 6;
+    private static final int MAX_DECISIONS = 50;
+
+    private final boolean adaptive;
+    private final int minSize;
+    private final int maxSize;
+    private final long growWaitNanos;
+    private final long shrinkWaitNanos;
+    private final LongAdder acquisitionsTotal = new LongAdder();
+    private final LongAdder timeoutsTotal = new LongAdder();
+    private final Deque<PoolResizeDecision> decisions = new ArrayDeque<>();
+    private volatile HikariConfigMXBean config;
+    private volatile PoolStats poolStats;
+    private volatile Window window = new Window();
+    private volatile PoolWindowStats lastWindow;
+    private int configuredMinimumIdle;
+    private double baselineUsageMillis;
+    private int consecutiveHolds;
+
+    public PoolMonitor(@Value("${app.pool.adaptive:true}") boolean adaptive,
+                       @Value("${app.pool.min-size:5}") int minSize,
+                       @Value("${app.pool.max-size:30}") int maxSize,
+                       @Value("${app.pool.grow-wait-threshold:PT0.01S}") Duration growWaitThreshold,
+                       @Value("${app.pool.shrink-wait-threshold:PT0.001S}") Duration shrinkWaitThreshold) {
+        this.adaptive = adaptive;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.growWaitNanos = growWaitThreshold.toNanos();
+        this.shrinkWaitNanos = shrinkWaitThreshold.toNanos();
+    }
+
+    /**
+     * The pool whose size is adjusted. Its current maximum is first clamped into the bounds.
+     */
+    public synchronized void attach(HikariConfigMXBean config) {
+        this.config = config;
+        // Unset (-1) means Hikari keeps the pool at its maximum size.
+        this.configuredMinimumIdle = config.getMinimumIdle() < 0 ? config.getMaximumPoolSize() : config.getMinimumIdle();
+        int clamped = Math.max(minSize, Math.min(maxSize, config.getMaximumPoolSize()));
+        if (adaptive && clamped != config.getMaximumPoolSize()) {
+            resize(config, config.getMaximumPoolSize(), clamped, "clamped into [" + minSize + ", " + maxSize + "]");
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new Tracker(poolStats);
+    }
+
+    @Scheduled(fixedDelayString = "${app.pool.adjust-interval:PT10S}", initialDelayString = "${app.pool.adjust-interval:PT10S}")
+    public synchronized void adjust() {
+        Window finished = window;
+        window = new Window();
+        PoolWindowStats stats = finished.toStats(poolStats);
+        lastWindow = stats;
+
+        HikariConfigMXBean current = config;
+        if (!adaptive || current == null) {
+            return;
+        }
+        int size = current.getMaximumPoolSize();
+        boolean contended = stats.timeouts() > 0 || stats.averageWaitMillis() * 1_000_000 >= growWaitNanos;
+        if (contended) {
+            boolean slower = baselineUsageMillis > 0 && stats.averageUsageMillis() > baselineUsageMillis * LATENCY_TOLERANCE;
+            if (slower && consecutiveHolds < MAX_CONSECUTIVE_HOLDS) {
+                consecutiveHolds++;
+                hold(size, String.format("held at %d: average wait %.1f ms but connection usage rose from %.1f to %.1f ms",
+                        size, stats.averageWaitMillis(), baselineUsageMillis, stats.averageUsageMillis()));
+                return;
+            }
+            if (slower) {
+                log.info("Connection usage has stayed above {} ms for {} windows, taking {} ms as the new baseline",
+                        String.format("%.1f", baselineUsageMillis), consecutiveHolds,
+                        String.format("%.1f", stats.averageUsageMillis()));
+                baselineUsageMillis = stats.averageUsageMillis();
+            }
+            consecutiveHolds = 0;
+            if (size < maxSize) {
+                resize(current, size, Math.min(maxSize, size + GROW_STEP), String.format(
+                        "average wait %.1f ms, %d timeouts", stats.averageWaitMillis(), stats.timeouts()));
+            }
+            return;
+        }
+        consecutiveHolds = 0;
+        if (stats.acquisitions() > 0) {
+            baselineUsageMillis = stats.averageUsageMillis();
+        }
+        if (size > minSize && stats.averageWaitMillis() * 1_000_000 < shrinkWaitNanos
+                && stats.peakPending() == 0 && stats.peakActive() < size - SHRINK_STEP) {
+            resize(current, size, Math.max(minSize, size - SHRINK_STEP), String.format(
+                    "peak %d active of %d, average wait %.2f ms", stats.peakActive(), size, stats.averageWaitMillis()));
+        }
+    }
+
+    public Optional<PoolStatus> status() {
+        HikariConfigMXBean current = config;
+        PoolStats stats = poolStats;
+        if (current == null) {
+            return Optional.empty();
+        }
+        List<PoolResizeDecision> recent;
+        synchronized (this) {
+            recent = new ArrayList<>(decisions);
+        }
+        return Optional.of(new PoolStatus(current.getPoolName(),
+                stats == null ? 0 : stats.getActiveConnections(),
+                stats == null ? 0 : stats.getIdleConnections(),
+                stats == null ? 0 : stats.getTotalConnections(),
+                stats == null ? 0 : stats.getPendingThreads(),
+                current.getMaximumPoolSize(), current.getMinimumIdle(), adaptive, minSize, maxSize,
+                acquisitionsTotal.sum(), timeoutsTotal.sum(), lastWindow, recent));
+    }
+
+    private void resize(HikariConfigMXBean current, int from, int to, String reason) {
+        // Idle connections above minimumIdle are retired by Hikari's housekeeper, which is what
+        // lets a smaller maximum take effect.
+        current.setMinimumIdle(Math.min(configuredMinimumIdle, to));
+        current.setMaximumPoolSize(to);
+        log.info("Connection pool {} resized from {} to {}: {}", current.getPoolName(), from, to, reason);
+        record(new PoolResizeDecision(Instant.now(), from, to, reason));
+    }
+
+    // Only the first hold of a run is recorded, so holds don't push the resizes out of the log.
+    private void hold(int size, String reason) {
+        PoolResizeDecision last = decisions.peekFirst();
+        if (last == null || last.from() != last.to() || last.to() != size) {
+            record(new PoolResizeDecision(Instant.now(), size, size, reason));
+        }
+    }
+
+    private void record(PoolResizeDecision decision) {
+        decisions.addFirst(decision);
+        if (decisions.size() > MAX_DECISIONS) {
+            decisions.removeLast();
+        }
+    }
+
+    private final class Tracker implements IMetricsTracker {
+
+        private final PoolStats stats;
+
+        private Tracker(PoolStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            window.created.increment();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            Window current = window;
+            current.acquisitions.increment();
+            current.waitNanos.add(elapsedAcquiredNanos);
+            current.maxWaitNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            // PoolStats caches its counts for a second, so this stays cheap on the hot path.
+            current.peakActive.accumulateAndGet(stats.getActiveConnections(), Math::max);
+            current.peakPending.accumulateAndGet(stats.getPendingThreads(), Math::max);
+            acquisitionsTotal.increment();
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            Window current = window;
+            current.usages.increment();
+            current.usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            window.timeouts.increment();
+            timeoutsTotal.increment();
+        }
+    }
+
+    private static final class Window {
+
+        private final long startedNanos = System.nanoTime();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+        private final LongAdder usages = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder created = new LongAdder();
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicInteger peakPending = new AtomicInteger();
+
+        private PoolWindowStats toStats(PoolStats stats) {
+            if (stats != null) {
+                peakActive.accumulateAndGet(stats.getActiveConnections(), Math::max);
+                peakPending.accumulateAndGet(stats.getPendingThreads(), Math::max);
+            }
+            long count = acquisitions.sum();
+            long used = usages.sum();
+            return new PoolWindowStats(Instant.now(), (System.nanoTime() - startedNanos) / 1e9, count,
+                    count == 0 ? 0 : waitNanos.sum() / 1e6 / count, maxWaitNanos.get() / 1e6, timeouts.sum(),
+                    used == 0 ? 0 : (double) usageMillis.sum() / used, created.sum(),
+                    peakActive.get(), peakPending.get());
+        }
+    }
+}
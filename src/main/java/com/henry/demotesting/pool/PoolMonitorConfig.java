@@ -0,0 +1,31 @@
+package com.henry.demotesting.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class PoolMonitorConfig {
+
+    /**
+     * Hands the Hikari pool to {@link PoolMonitor} after its properties are bound but before it
+     * starts; the metrics tracker factory can no longer be set once the pool is running.
+     */
+    @Bean
+    public static BeanPostProcessor poolMonitorPostProcessor(ObjectProvider<PoolMonitor> poolMonitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && hikari.getMetricsTrackerFactory() == null
+                        && hikari.getMetricRegistry() == null) {
+                    PoolMonitor monitor = poolMonitor.getObject();
+                    hikari.setMetricsTrackerFactory(monitor);
+                    monitor.attach(hikari.getHikariConfigMXBean());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.henry.demotesting.purge;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.model.PurgeStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hard-deletes soft-deleted employees in the background.
+ * <p>
+ * Each tick removes at most {@code app.purge.batch-size} tombstones older than
+ * {@code app.purge.min-age}, so the tick interval and the batch size together cap the delete rate.
+ * A tick is skipped while employees are still being written: only after
+ * {@code app.purge.quiet-period} without writes does the purger compete for locks on the table.
+ * The {@code min-age} is also the window in which {@link com.henry.demotesting.sync.ChangeFeed}
+ * can report a delete. Like the feed, the SQL here has to see tombstoned rows, which is why it
+ * goes through {@link JdbcTemplate} instead of the repository.
+ */
+@Component
+public class TombstonePurger {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstonePurger.class);
+
+    static final String SELECT_BATCH_SQL =
+            "select id from employees where deleted_at < ? order by deleted_at, id limit ?";
+    static final String BACKLOG_SQL =
+            "select count(*), min(deleted_at) from employees where deleted_at is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration minAge;
+    private final long quietPeriodNanos;
+    private final AtomicLong purgedTotal = new AtomicLong();
+    private volatile long lastWriteNanos;
+    private volatile Instant lastPurgeAt;
+
+    public TombstonePurger(JdbcTemplate jdbcTemplate,
+                           @Value("${app.purge.enabled:true}") boolean enabled,
+                           @Value("${app.purge.batch-size:200}") int batchSize,
+                           @Value("${app.purge.min-age:PT24H}") Duration minAge,
+                           @Value("${app.purge.quiet-period:PT10S}") Duration quietPeriod) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.minAge = minAge;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.lastWriteNanos = System.nanoTime() - quietPeriodNanos;
+    }
+
+    @EventListener({EmployeeChangedEvent.class, EmployeesImportedEvent.class})
+    public void onWrite() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval:PT1S}", initialDelayString = "${app.purge.interval:PT1S}")
+    public void purgeBatch() {
+        if (!enabled || !isQuiet()) {
+            return;
+        }
+        purge(Instant.now().minus(minAge));
+    }
+
+    int purge(Instant cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH_SQL, Long.class, Timestamp.from(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        int purged = jdbcTemplate.update(
+                "delete from employees where id in (" + placeholders + ") and deleted_at is not null", ids.toArray());
+        purgedTotal.addAndGet(purged);
+        lastPurgeAt = Instant.now();
+        log.debug("Purged {} soft-deleted employees", purged);
+        return purged;
+    }
+
+    /**
+     * Tombstone backlog. The lag is how far the oldest tombstone is past {@code min-age}, i.e. how
+     * long the purger has been behind.
+     */
+    public PurgeStats stats() {
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, rowNum) -> {
+            long pending = rs.getLong(1);
+            Timestamp oldest = rs.getTimestamp(2);
+            Instant oldestTombstone = oldest == null ? null : oldest.toInstant();
+            long lagMillis = oldestTombstone == null ? 0
+                    : Math.max(0, Duration.between(oldestTombstone, Instant.now()).minus(minAge).toMillis());
+            return new PurgeStats(pending, oldestTombstone, lagMillis, purgedTotal.get(), lastPurgeAt, isQuiet());
+        });
+    }
+
+    private boolean isQuiet() {
+        return System.nanoTime() - lastWriteNanos >= quietPeriodNanos;
+    }
+}
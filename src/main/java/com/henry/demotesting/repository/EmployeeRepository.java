@@ -1,15 +1,41 @@
 package com.henry.demotesting.repository;
 
 import com.henry.demotesting.model.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Soft-deleted rows are hidden from every query here: JPQL and derived queries through the
+ * {@code @SQLRestriction} on {@link Employee}, native queries by their own
+ * {@code deleted_at is null} condition.
+ */
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
-    Optional<Employee> findByEmail(String email);
+    /**
+     * Case-insensitive lookup that ignores surrounding whitespace, served by the index on
+     * {@code email_normalized}.
+     */
+    default Optional<Employee> findByEmail(String email) {
+        return findFirstByEmailNormalized(Employee.normalizeEmail(email));
+    }
+
+    Optional<Employee> findFirstByEmailNormalized(String emailNormalized);
+
+    /**
+     * @param emails already normalized with {@link Employee#normalizeEmail(String)}
+     * @return the normalized emails that are taken
+     */
+    @Query("select e.emailNormalized from Employee e where e.emailNormalized in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
@@ -17,9 +43,44 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
     Employee findByJPQLNameParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
-    @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_name = ?1 and e.last_name = ?2 and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
 
-    @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQLWithNameParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    @Query("select lower(substring(e.email, locate('@', e.email) + 1)), count(e) from Employee e " +
+            "group by lower(substring(e.email, locate('@', e.email) + 1))")
+    List<Object[]> countByEmailDomain();
+
+    @Query("select upper(substring(e.lastName, 1, 1)), count(e) from Employee e " +
+            "group by upper(substring(e.lastName, 1, 1))")
+    List<Object[]> countByLastNameInitial();
+
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<Employee> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from Employee e")
+    long findMaxId();
+
+    @Query("select max(e.updatedAt) from Employee e")
+    Instant findLastUpdatedAt();
+
+    // Constructor expression: the rows come back unmanaged, so paging through the whole table
+    // does not grow the persistence context of an open-in-view request.
+    @Query("select new com.henry.demotesting.model.Employee(e.id, e.firstName, e.lastName, e.email) " +
+            "from Employee e where e.id > :id order by e.id")
+    List<Employee> findUnmanagedPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // locate() rather than like: '%' and '_' in the query are matched literally, as in the snapshot.
+    @Query("select e from Employee e where locate(lower(:query), lower(e.firstName)) > 0 " +
+            "or locate(lower(:query), lower(e.lastName)) > 0 " +
+            "or locate(lower(:query), lower(e.email)) > 0")
+    List<Employee> search(@Param("query") String query);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Employee e set e.deletedAt = :deletedAt where e.id = :id and e.deletedAt is null")
+    int softDeleteById(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
 }
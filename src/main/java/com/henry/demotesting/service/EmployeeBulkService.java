@@ -0,0 +1,9 @@
+package com.henry.demotesting.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface EmployeeBulkService {
+    void execute(InputStream operations, OutputStream results) throws IOException;
+}
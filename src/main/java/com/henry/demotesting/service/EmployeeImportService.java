@@ -0,0 +1,9 @@
+package com.henry.demotesting.service;
+
+import com.henry.demotesting.model.ImportReport;
+
+import java.io.InputStream;
+
+public interface EmployeeImportService {
+    ImportReport importCsv(InputStream csv);
+}
@@ -1,15 +1,22 @@
 package com.henry.demotesting.service;
 
+import com.henry.demotesting.model.ChangePage;
 import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeStats;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
     List<Employee> getEmployees();
+    Stream<Employee> streamEmployees();
     Optional<Employee> findById(Long id);
+    List<Employee> searchEmployees(String query);
     Employee updateEmployee(Employee employee);
     void deleteEmployee(long id);
+    EmployeeStats getStats();
+    ChangePage getChangesSince(String token, int limit);
 
 }
@@ -0,0 +1,442 @@
+package com.henry.demotesting.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.model.BulkOperation;
+import com.henry.demotesting.model.BulkResult;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.service.EmployeeBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes NDJSON streams of mixed create, update and delete operations.
+ * <p>
+ * Operations are read line by line and run in chunks of {@code app.bulk.chunk-size}, one
+ * transaction per chunk. Within a chunk they are collected into one JDBC batch per operation type,
+ * and the duplicate-email and existence checks run as one set query each. Batching reorders
+ * operations of different types (inserts run first), which is only safe while they touch different
+ * rows and emails, so an operation that shares an id or an email with the batch first executes the
+ * batch. The emails an operation touches are a create's email, an update's current and new email,
+ * and a delete's current email, so a create after the delete or update that frees its email sees
+ * the email as free, and one after an update that takes it sees it taken. A chunk that fails is
+ * rolled back and reported as failed; later chunks still run. Results are written in request order
+ * and flushed after every chunk, and change events are published once the chunk has committed.
+ */
+@Service
+public class EmployeeBulkServiceImpl implements EmployeeBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkServiceImpl.class);
+
+    static final String INSERT_SQL = "insert into employees (first_name, last_name, email, email_normalized, updated_at) "
+            + "values (?, ?, ?, ?, current_timestamp(6))";
+    static final String UPDATE_SQL = "update employees set first_name = ?, last_name = ?, email = ?, email_normalized = ?, "
+            + "updated_at = current_timestamp(6) where id = ? and deleted_at is null";
+    static final String DELETE_SQL = "update employees set deleted_at = ?, updated_at = current_timestamp(6) "
+            + "where id = ? and deleted_at is null";
+    private static final int MAX_LENGTH = 255;
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public EmployeeBulkServiceImpl(ObjectMapper objectMapper,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${app.bulk.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void execute(InputStream operations, OutputStream results) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(operations, StandardCharsets.UTF_8));
+        var out = new BufferedOutputStream(results, 1 << 16);
+        var chunk = new ArrayList<Operation>(chunkSize);
+        long index = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(index++, line));
+            if (chunk.size() == chunkSize) {
+                execute(chunk, out);
+                chunk.clear();
+            }
+        }
+        execute(chunk, out);
+        out.flush();
+    }
+
+    private void execute(List<Operation> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<EmployeeChangedEvent> events = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, String> liveEmails = findLiveEmails(chunk);
+                var batch = new Batch(liveEmails);
+                for (Operation operation : chunk) {
+                    if (operation.result != null) {
+                        continue;
+                    }
+                    if (batch.conflictsWith(operation)) {
+                        batch.execute(events);
+                        batch = new Batch(liveEmails);
+                    }
+                    batch.add(operation);
+                }
+                batch.execute(events);
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Bulk chunk of {} operations failed", chunk.size(), ex);
+            events.clear();
+            for (Operation operation : chunk) {
+                if (operation.result == null || operation.result.status() < 400) {
+                    operation.fail(500, "Rolled back: " + ex.getMessage());
+                }
+            }
+        }
+        events.forEach(eventPublisher::publishEvent);
+        for (Operation operation : chunk) {
+            out.write(objectMapper.writeValueAsBytes(operation.result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private Operation parse(long index, String line) {
+        BulkOperation request;
+        try {
+            request = objectMapper.readValue(line, BulkOperation.class);
+        } catch (JsonProcessingException ex) {
+            return Operation.invalid(index, null, null, "Malformed operation: " + ex.getOriginalMessage());
+        }
+        Type type = Type.of(request.op());
+        if (type == null) {
+            return Operation.invalid(index, request.op(), request.id(), "op must be create, update or delete");
+        }
+        if (type != Type.CREATE && request.id() == null) {
+            return Operation.invalid(index, request.op(), null, "id is required for " + type.label);
+        }
+        if (type != Type.DELETE) {
+            String problem = problem(request.employee());
+            if (problem != null) {
+                return Operation.invalid(index, type.label, request.id(), problem);
+            }
+        }
+        return new Operation(index, type, request.id(), request.employee());
+    }
+
+    private static String problem(Employee employee) {
+        if (employee == null) {
+            return "employee is required";
+        }
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            return "firstName, lastName and email are required";
+        }
+        if (employee.getFirstName().length() > MAX_LENGTH || employee.getLastName().length() > MAX_LENGTH
+                || employee.getEmail().length() > MAX_LENGTH) {
+            return "Fields are limited to " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private enum Type {
+        CREATE, UPDATE, DELETE;
+
+        final String label = name().toLowerCase(Locale.ROOT);
+
+        static Type of(String op) {
+            for (Type type : values()) {
+                if (type.label.equalsIgnoreCase(op)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Operation {
+
+        private final long index;
+        private final Type type;
+        private final Long id;
+        private final Employee employee;
+        private BulkResult result;
+
+        private Operation(long index, Type type, Long id, Employee employee) {
+            this.index = index;
+            this.type = type;
+            this.id = id;
+            this.employee = employee;
+        }
+
+        static Operation invalid(long index, String op, Long id, String error) {
+            var operation = new Operation(index, null, id, null);
+            operation.result = new BulkResult(index, op, 400, id, error);
+            return operation;
+        }
+
+        String emailNormalized() {
+            return Employee.normalizeEmail(employee.getEmail());
+        }
+
+        void succeed(int status, long id) {
+            result = new BulkResult(index, type.label, status, id, null);
+        }
+
+        void fail(int status, String error) {
+            result = new BulkResult(index, type == null ? result.op() : type.label, status, id, error);
+        }
+    }
+
+    /**
+     * Operations on distinct rows, executed as at most one statement batch per type.
+     */
+    private final class Batch {
+
+        private final List<Operation> creates = new ArrayList<>();
+        private final List<Operation> updates = new ArrayList<>();
+        private final List<Operation> deletes = new ArrayList<>();
+        private final Set<Long> ids = new HashSet<>();
+        private final Set<String> emails = new HashSet<>();
+        // Current email of each live row the chunk refers to, as of the operations added so far.
+        private final Map<Long, String> liveEmails;
+
+        Batch(Map<Long, String> liveEmails) {
+            this.liveEmails = liveEmails;
+        }
+
+        boolean conflictsWith(Operation operation) {
+            if (operation.type != Type.CREATE && ids.contains(operation.id)) {
+                return true;
+            }
+            for (String email : emailsTouchedBy(operation)) {
+                if (emails.contains(email)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(Operation operation) {
+            emails.addAll(emailsTouchedBy(operation));
+            switch (operation.type) {
+                case CREATE -> creates.add(operation);
+                case UPDATE -> {
+                    updates.add(operation);
+                    ids.add(operation.id);
+                    liveEmails.replace(operation.id, operation.emailNormalized());
+                }
+                case DELETE -> {
+                    deletes.add(operation);
+                    ids.add(operation.id);
+                    liveEmails.remove(operation.id);
+                }
+            }
+        }
+
+        private List<String> emailsTouchedBy(Operation operation) {
+            var touched = new ArrayList<String>(2);
+            if (operation.type != Type.CREATE && liveEmails.containsKey(operation.id)) {
+                touched.add(liveEmails.get(operation.id));
+            }
+            if (operation.type != Type.DELETE) {
+                touched.add(operation.emailNormalized());
+            }
+            return touched;
+        }
+
+        void execute(List<EmployeeChangedEvent> events) {
+            insert(events);
+            if (!ids.isEmpty()) {
+                Map<Long, Employee> live = findLive(ids);
+                update(live, events);
+                delete(live, events);
+            }
+        }
+
+        private void insert(List<EmployeeChangedEvent> events) {
+            if (creates.isEmpty()) {
+                return;
+            }
+            Set<String> taken = findTakenEmails(creates.stream().map(Operation::emailNormalized).toList());
+            var accepted = new ArrayList<Operation>(creates.size());
+            for (Operation operation : creates) {
+                if (taken.contains(operation.emailNormalized())) {
+                    operation.fail(409, "Employee already exist with given email: " + operation.employee.getEmail());
+                } else {
+                    accepted.add(operation);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return;
+            }
+            var keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            Operation operation = accepted.get(i);
+                            ps.setString(1, operation.employee.getFirstName());
+                            ps.setString(2, operation.employee.getLastName());
+                            ps.setString(3, operation.employee.getEmail());
+                            ps.setString(4, operation.emailNormalized());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return accepted.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> generated = keys.getKeyList();
+            if (generated.size() != accepted.size()) {
+                throw new IllegalStateException("Expected " + accepted.size() + " generated ids, got " + generated.size());
+            }
+            for (int i = 0; i < accepted.size(); i++) {
+                Operation operation = accepted.get(i);
+                long id = ((Number) generated.get(i).values().iterator().next()).longValue();
+                operation.succeed(201, id);
+                events.add(EmployeeChangedEvent.created(new Employee(id, operation.employee.getFirstName(),
+                        operation.employee.getLastName(), operation.employee.getEmail())));
+            }
+        }
+
+        private void update(Map<Long, Employee> live, List<EmployeeChangedEvent> events) {
+            List<Operation> accepted = existing(updates, live);
+            if (accepted.isEmpty()) {
+                return;
+            }
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, accepted, accepted.size(), (ps, operation) -> {
+                ps.setString(1, operation.employee.getFirstName());
+                ps.setString(2, operation.employee.getLastName());
+                ps.setString(3, operation.employee.getEmail());
+                ps.setString(4, operation.emailNormalized());
+                ps.setLong(5, operation.id);
+            })[0];
+            for (int i = 0; i < accepted.size(); i++) {
+                Operation operation = accepted.get(i);
+                if (counts[i] == 0) {
+                    operation.fail(404, "Employee not found: " + operation.id);
+                    continue;
+                }
+                operation.succeed(200, operation.id);
+                events.add(EmployeeChangedEvent.updated(live.get(operation.id), new Employee(operation.id,
+                        operation.employee.getFirstName(), operation.employee.getLastName(), operation.employee.getEmail())));
+            }
+        }
+
+        private void delete(Map<Long, Employee> live, List<EmployeeChangedEvent> events) {
+            List<Operation> accepted = existing(deletes, live);
+            if (accepted.isEmpty()) {
+                return;
+            }
+            var deletedAt = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MICROS));
+            int[] counts = jdbcTemplate.batchUpdate(DELETE_SQL, accepted, accepted.size(), (ps, operation) -> {
+                ps.setTimestamp(1, deletedAt);
+                ps.setLong(2, operation.id);
+            })[0];
+            for (int i = 0; i < accepted.size(); i++) {
+                Operation operation = accepted.get(i);
+                if (counts[i] == 0) {
+                    operation.fail(404, "Employee not found: " + operation.id);
+                    continue;
+                }
+                operation.succeed(200, operation.id);
+                events.add(EmployeeChangedEvent.deleted(live.get(operation.id)));
+            }
+        }
+
+        private List<Operation> existing(List<Operation> operations, Map<Long, Employee> live) {
+            var existing = new ArrayList<Operation>(operations.size());
+            for (Operation operation : operations) {
+                if (live.containsKey(operation.id)) {
+                    existing.add(operation);
+                } else {
+                    operation.fail(404, "Employee not found: " + operation.id);
+                }
+            }
+            return existing;
+        }
+    }
+
+    private Set<String> findTakenEmails(Collection<String> emails) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select email_normalized from employees where deleted_at is null and email_normalized in ("
+                        + placeholders(emails.size()) + ")", String.class, emails.toArray()));
+    }
+
+    private Map<Long, String> findLiveEmails(List<Operation> chunk) {
+        var ids = new HashSet<Long>();
+        for (Operation operation : chunk) {
+            if (operation.result == null && operation.type != Type.CREATE) {
+                ids.add(operation.id);
+            }
+        }
+        var liveEmails = new HashMap<Long, String>();
+        if (!ids.isEmpty()) {
+            findLive(ids).forEach((id, employee) -> liveEmails.put(id, Employee.normalizeEmail(employee.getEmail())));
+        }
+        return liveEmails;
+    }
+
+    private Map<Long, Employee> findLive(Collection<Long> ids) {
+        var live = new HashMap<Long, Employee>();
+        jdbcTemplate.query("select id, first_name, last_name, email from employees where deleted_at is null and id in ("
+                        + placeholders(ids.size()) + ")",
+                rs -> {
+                    long id = rs.getLong("id");
+                    live.put(id, new Employee(id, rs.getString("first_name"), rs.getString("last_name"), rs.getString("email")));
+                }, ids.toArray());
+        return live;
+    }
+}
@@ -0,0 +1,379 @@
+package com.henry.demotesting.service.impl;
+
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.importer.CsvRecordReader;
+import com.henry.demotesting.importer.CsvRecordReader.CsvRecord;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.ImportReport;
+import com.henry.demotesting.model.ImportReport.RowError;
+import com.henry.demotesting.repository.EmployeeRepository;
+import com.henry.demotesting.service.EmployeeImportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming CSV import: parse -> validate -> write.
+ * <p>
+ * The request thread parses records into chunks and hands each chunk to a pool of validators.
+ * Validated chunks go through a bounded queue to a single writer, which checks the chunk's emails
+ * with one set query and inserts the survivors in one JDBC batch per chunk transaction. A
+ * semaphore caps the number of chunks between parser and writer, so memory use does not depend
+ * on the size of the upload.
+ */
+@Service
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportServiceImpl.class);
+
+    private static final String INSERT_SQL = "insert into employees (first_name, last_name, email, email_normalized, updated_at) "
+            + "values (?, ?, ?, ?, current_timestamp(6))";
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+");
+    private static final int MAX_LENGTH = 255;
+    private static final Chunk END = new Chunk(List.of());
+
+    private final EmployeeRepository employeeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int maxReportedErrors;
+    private final ExecutorService validators;
+    private final ExecutorService writers;
+
+    public EmployeeImportServiceImpl(EmployeeRepository employeeRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.import.chunk-size:1000}") int chunkSize,
+                                     @Value("${app.import.parallelism:4}") int parallelism,
+                                     @Value("${app.import.max-chunks-in-flight:8}") int maxChunksInFlight,
+                                     @Value("${app.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.employeeRepository = employeeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.maxReportedErrors = maxReportedErrors;
+        this.validators = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("employee-import-validate-", 0).factory());
+        this.writers = Executors.newCachedThreadPool(
+                Thread.ofPlatform().name("employee-import-write-", 0).factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validators.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    @Override
+    public ImportReport importCsv(InputStream csv) {
+        long started = System.nanoTime();
+        var progress = new Progress(maxReportedErrors);
+        var validated = new ArrayBlockingQueue<Chunk>(maxChunksInFlight + 1);
+        var inFlight = new Semaphore(maxChunksInFlight);
+        var validations = new Phaser(1);
+
+        Future<?> writer = writers.submit(() -> writeChunks(validated, inFlight, progress));
+        try {
+            parse(csv, progress, validated, inFlight, validations);
+        } finally {
+            validations.arriveAndAwaitAdvance();
+            putUninterruptibly(validated, END);
+        }
+        awaitUninterruptibly(writer);
+
+        long elapsedNanos = System.nanoTime() - started;
+        if (progress.imported.get() > 0) {
+            eventPublisher.publishEvent(new EmployeesImportedEvent(progress.imported.get()));
+        }
+        ImportReport report = progress.toReport(elapsedNanos);
+        log.info("Imported {} of {} employees in {} ms ({} rows/s)", report.rowsImported(), report.rowsRead(),
+                report.elapsedMillis(), Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    private void parse(InputStream csv, Progress progress, BlockingQueue<Chunk> validated,
+                       Semaphore inFlight, Phaser validations) {
+        var reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        try {
+            CsvRecord record = reader.next();
+            Columns columns = Columns.POSITIONAL;
+            if (record != null && Columns.isHeader(record)) {
+                columns = Columns.fromHeader(record);
+                if (columns == null) {
+                    progress.reject(record.line(), "Header must name the firstName, lastName and email columns");
+                    return;
+                }
+                record = reader.next();
+            }
+
+            var records = new ArrayList<CsvRecord>(chunkSize);
+            for (; record != null; record = reader.next()) {
+                progress.read.incrementAndGet();
+                records.add(record);
+                if (records.size() == chunkSize) {
+                    submit(records, columns, progress, validated, inFlight, validations);
+                    records = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!records.isEmpty()) {
+                submit(records, columns, progress, validated, inFlight, validations);
+            }
+        } catch (IOException ex) {
+            progress.reject(reader.line(), "Malformed CSV, import stopped: " + ex.getMessage());
+        }
+    }
+
+    private void submit(List<CsvRecord> records, Columns columns, Progress progress,
+                        BlockingQueue<Chunk> validated, Semaphore inFlight, Phaser validations) {
+        inFlight.acquireUninterruptibly();
+        validations.register();
+        validators.execute(() -> {
+            try {
+                Chunk chunk;
+                try {
+                    chunk = validate(records, columns, progress);
+                } catch (RuntimeException ex) {
+                    records.forEach(record -> progress.reject(record.line(), "Validation failed: " + ex.getMessage()));
+                    chunk = new Chunk(List.of());
+                }
+                putUninterruptibly(validated, chunk);
+            } finally {
+                validations.arriveAndDeregister();
+            }
+        });
+    }
+
+    private Chunk validate(List<CsvRecord> records, Columns columns, Progress progress) {
+        var rows = new ArrayList<Row>(records.size());
+        for (CsvRecord record : records) {
+            if (record.fields().size() < columns.width()) {
+                progress.reject(record.line(), "Expected " + columns.width() + " columns but found " + record.fields().size());
+                continue;
+            }
+            String firstName = record.fields().get(columns.firstName()).trim();
+            String lastName = record.fields().get(columns.lastName()).trim();
+            String email = record.fields().get(columns.email()).trim();
+            String problem = problem(firstName, lastName, email);
+            if (problem != null) {
+                progress.reject(record.line(), problem);
+            } else {
+                rows.add(new Row(record.line(), firstName, lastName, email));
+            }
+        }
+        return new Chunk(rows);
+    }
+
+    private static String problem(String firstName, String lastName, String email) {
+        if (firstName.isEmpty() || lastName.isEmpty() || email.isEmpty()) {
+            return "firstName, lastName and email are required";
+        }
+        if (firstName.length() > MAX_LENGTH || lastName.length() > MAX_LENGTH || email.length() > MAX_LENGTH) {
+            return "Values must be at most " + MAX_LENGTH + " characters";
+        }
+        if (!EMAIL.matcher(email).matches()) {
+            return "Invalid email: " + email;
+        }
+        return null;
+    }
+
+    private void writeChunks(BlockingQueue<Chunk> validated, Semaphore inFlight, Progress progress) {
+        while (true) {
+            Chunk chunk = takeUninterruptibly(validated);
+            if (chunk == END) {
+                return;
+            }
+            try {
+                write(chunk, progress);
+            } catch (RuntimeException ex) {
+                log.warn("Import chunk of {} rows failed", chunk.rows().size(), ex);
+                chunk.rows().forEach(row -> progress.reject(row.line(), "Write failed: " + ex.getMessage()));
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    private void write(Chunk chunk, Progress progress) {
+        if (chunk.rows().isEmpty()) {
+            return;
+        }
+        List<Row> duplicates = new ArrayList<>();
+        Integer inserted = transactionTemplate.execute(status -> {
+            Set<String> emails = chunk.rows().stream().map(Row::emailNormalized).collect(Collectors.toSet());
+            Set<String> taken = new HashSet<>(employeeRepository.findExistingEmails(emails));
+            var accepted = new ArrayList<Row>(chunk.rows().size());
+            for (Row row : chunk.rows()) {
+                if (taken.add(row.emailNormalized())) {
+                    accepted.add(row);
+                } else {
+                    duplicates.add(row);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, accepted, accepted.size(), (ps, row) -> {
+                    ps.setString(1, row.firstName());
+                    ps.setString(2, row.lastName());
+                    ps.setString(3, row.email());
+                    ps.setString(4, row.emailNormalized());
+                });
+            }
+            return accepted.size();
+        });
+        progress.imported.addAndGet(inserted == null ? 0 : inserted);
+        duplicates.forEach(row -> progress.reject(row.line(), "Employee already exist with given email: " + row.email()));
+    }
+
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T element) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(element);
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> T takeUninterruptibly(BlockingQueue<T> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitUninterruptibly(Future<?> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Import writer failed", ex.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record Row(long line, String firstName, String lastName, String email) {
+
+        String emailNormalized() {
+            return Employee.normalizeEmail(email);
+        }
+    }
+
+    private record Chunk(List<Row> rows) {
+    }
+
+    private record Columns(int firstName, int lastName, int email) {
+
+        static final Columns POSITIONAL = new Columns(0, 1, 2);
+
+        static boolean isHeader(CsvRecord record) {
+            return record.fields().stream().map(Columns::normalize).anyMatch(name -> name.equals("email"));
+        }
+
+        static Columns fromHeader(CsvRecord record) {
+            List<String> names = record.fields().stream().map(Columns::normalize).toList();
+            int firstName = names.indexOf("firstname");
+            int lastName = names.indexOf("lastname");
+            int email = names.indexOf("email");
+            return firstName < 0 || lastName < 0 || email < 0 ? null : new Columns(firstName, lastName, email);
+        }
+
+        int width() {
+            return Math.max(firstName, Math.max(lastName, email)) + 1;
+        }
+
+        private static String normalize(String name) {
+            return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final class Progress {
+        private final int maxErrors;
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<RowError> errors = new ArrayList<>();
+        private boolean truncated;
+
+        private Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void reject(long line, String message) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new RowError(line, message));
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        private ImportReport toReport(long elapsedNanos) {
+            synchronized (errors) {
+                errors.sort(Comparator.comparingLong(RowError::line));
+                double seconds = elapsedNanos / 1_000_000_000.0;
+                return new ImportReport(read.get(), imported.get(), rejected.get(), elapsedNanos / 1_000_000,
+                        seconds == 0 ? 0 : imported.get() / seconds, List.copyOf(errors), truncated);
+            }
+        }
+    }
+}
@@ -1,21 +1,48 @@
 package com.henry.demotesting.service.impl;
 
+import com.henry.demotesting.event.EmployeeChangedEvent;
 import com.henry.demotesting.exception.ResourceNotFoundException;
+import com.henry.demotesting.model.ChangePage;
 import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeStats;
 import com.henry.demotesting.repository.EmployeeRepository;
 import com.henry.demotesting.service.EmployeeService;
+import com.henry.demotesting.snapshot.EmployeeSnapshot;
+import com.henry.demotesting.stats.EmployeeCounters;
+import com.henry.demotesting.sync.ChangeFeed;
+import com.henry.demotesting.trace.Traced;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+@Traced
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     private  final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeCounters employeeCounters;
+    private final EmployeeSnapshot employeeSnapshot;
+    private final ChangeFeed changeFeed;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               EmployeeCounters employeeCounters,
+                               EmployeeSnapshot employeeSnapshot,
+                               ChangeFeed changeFeed) {
         this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.employeeCounters = employeeCounters;
+        this.employeeSnapshot = employeeSnapshot;
+        this.changeFeed = changeFeed;
     }
 
     @Override
@@ -25,26 +52,78 @@ public class EmployeeServiceImpl implements EmployeeService {
         if(savedEmployee.isPresent()){
             throw new ResourceNotFoundException("Employee already exist with given email: "+employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        Employee created = employeeRepository.save(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(created));
+        return created;
     }
 
     @Override
     public List<Employee> getEmployees() {
+        if (employeeSnapshot.isServing()) {
+            return employeeSnapshot.list();
+        }
         return employeeRepository.findAll();
     }
 
+    @Override
+    public Stream<Employee> streamEmployees() {
+        if (employeeSnapshot.isServing()) {
+            return employeeSnapshot.list().stream();
+        }
+        // Keyset paging, the next page is only fetched once the previous one has been consumed.
+        return Stream.iterate(nextPage(0L), page -> !page.isEmpty(),
+                        page -> nextPage(page.get(page.size() - 1).getId()))
+                .flatMap(List::stream);
+    }
+
+    private List<Employee> nextPage(Long afterId) {
+        return employeeRepository.findUnmanagedPageAfter(afterId, PageRequest.of(0, STREAM_PAGE_SIZE));
+    }
+
     @Override
     public Optional<Employee> findById(Long id) {
+        if (employeeSnapshot.isServing()) {
+            return employeeSnapshot.findById(id);
+        }
         return employeeRepository.findById(id);
     }
 
+    @Override
+    public List<Employee> searchEmployees(String query) {
+        if (employeeSnapshot.isServing()) {
+            return employeeSnapshot.search(query);
+        }
+        return employeeRepository.search(query);
+    }
+
     @Override
     public Employee updateEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        // Copy the stored row before merging, the merge overwrites the managed instance.
+        Optional<Employee> previous = employee.getId() == null ? Optional.empty()
+                : employeeRepository.findById(employee.getId()).map(stored -> stored.toBuilder().build());
+        Employee updated = employeeRepository.save(employee);
+        eventPublisher.publishEvent(previous
+                .map(stored -> EmployeeChangedEvent.updated(stored, updated))
+                .orElseGet(() -> EmployeeChangedEvent.created(updated)));
+        return updated;
     }
 
     @Override
     public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+        // Tombstone only, the row is hard-deleted later by TombstonePurger.
+        Optional<Employee> previous = employeeRepository.findById(id);
+        if (previous.isPresent() && employeeRepository.softDeleteById(id, Instant.now().truncatedTo(ChronoUnit.MICROS)) > 0) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(previous.get()));
+        }
+    }
+
+    @Override
+    public EmployeeStats getStats() {
+        return employeeCounters.stats();
+    }
+
+    @Override
+    public ChangePage getChangesSince(String token, int limit) {
+        return changeFeed.changesSince(token, limit);
     }
 }
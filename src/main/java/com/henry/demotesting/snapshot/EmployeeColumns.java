@@ -0,0 +1,160 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.SnapshotFootprint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Column-oriented copy of the employees table: one primitive array per column, string columns
+ * holding references into a shared {@link Utf8Pool}. Deleted rows keep their slot with id 0 until
+ * the next rebuild. Not thread-safe, {@link EmployeeSnapshot} guards access.
+ */
+final class EmployeeColumns {
+
+    private static final long REFERENCE_BYTES = 4;
+    private static final long OBJECT_HEADER_BYTES = 12;
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private final LongIntHashMap index;
+    private final Utf8Pool pool = new Utf8Pool();
+    private long[] ids;
+    private int[] firstNames;
+    private int[] lastNames;
+    private int[] emails;
+    private int rows;
+    private int live;
+
+    EmployeeColumns(int capacity) {
+        capacity = Math.max(16, capacity);
+        index = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        emails = new int[capacity];
+    }
+
+    void apply(EmployeeChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> upsert(event.current());
+            case DELETED -> remove(event.previous().getId());
+        }
+    }
+
+    void upsert(Employee employee) {
+        long id = employee.getId();
+        int row = index.get(id);
+        if (row == LongIntHashMap.MISSING) {
+            if (rows == ids.length) {
+                grow();
+            }
+            row = rows++;
+            ids[row] = id;
+            index.put(id, row);
+            live++;
+        }
+        firstNames[row] = pool.intern(employee.getFirstName());
+        lastNames[row] = pool.intern(employee.getLastName());
+        emails[row] = pool.intern(employee.getEmail());
+    }
+
+    void remove(long id) {
+        int row = index.get(id);
+        if (row != LongIntHashMap.MISSING) {
+            index.remove(id);
+            ids[row] = 0;
+            live--;
+        }
+    }
+
+    Employee get(long id) {
+        int row = index.get(id);
+        return row == LongIntHashMap.MISSING ? null : materialize(row);
+    }
+
+    List<Employee> list() {
+        var employees = new ArrayList<Employee>(live);
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] != 0) {
+                employees.add(materialize(row));
+            }
+        }
+        return employees;
+    }
+
+    List<Employee> search(String query) {
+        BitSet matches = pool.matching(query);
+        var employees = new ArrayList<Employee>();
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] != 0 && (matches(matches, firstNames[row])
+                    || matches(matches, lastNames[row]) || matches(matches, emails[row]))) {
+                employees.add(materialize(row));
+            }
+        }
+        return employees;
+    }
+
+    int size() {
+        return live;
+    }
+
+    SnapshotFootprint footprint() {
+        long columnar = ARRAY_HEADER_BYTES + ids.length * 8L
+                + 3 * (ARRAY_HEADER_BYTES + firstNames.length * 4L)
+                + index.bytes() + pool.bytes();
+
+        // What the same rows cost as Employee entities: the object, its boxed Long id and three
+        // compact (Latin-1) Strings with their backing arrays, plus the slot in the result list.
+        long employeeObject = align(OBJECT_HEADER_BYTES + 4 * REFERENCE_BYTES);
+        long boxedId = align(OBJECT_HEADER_BYTES + 8);
+        long entity = 0;
+        for (int row = 0; row < rows; row++) {
+            if (ids[row] != 0) {
+                entity += REFERENCE_BYTES + employeeObject + boxedId
+                        + stringBytes(firstNames[row]) + stringBytes(lastNames[row]) + stringBytes(emails[row]);
+            }
+        }
+        return new SnapshotFootprint(live, pool.count(), columnar, perEmployee(columnar),
+                entity, perEmployee(entity));
+    }
+
+    private Employee materialize(int row) {
+        return Employee.builder()
+                .id(ids[row])
+                .firstName(pool.get(firstNames[row]))
+                .lastName(pool.get(lastNames[row]))
+                .email(pool.get(emails[row]))
+                .build();
+    }
+
+    private static boolean matches(BitSet matches, int ref) {
+        return ref != Utf8Pool.NULL && matches.get(ref);
+    }
+
+    private long stringBytes(int ref) {
+        if (ref == Utf8Pool.NULL) {
+            return 0;
+        }
+        return align(OBJECT_HEADER_BYTES + 12) + align(ARRAY_HEADER_BYTES + pool.length(ref));
+    }
+
+    private double perEmployee(long bytes) {
+        return live == 0 ? 0 : (double) bytes / live;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        firstNames = Arrays.copyOf(firstNames, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
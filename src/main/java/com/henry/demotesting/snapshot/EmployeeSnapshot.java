@@ -0,0 +1,290 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.SnapshotFootprint;
+import com.henry.demotesting.model.WarmupReport;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Optional read-serving mode that keeps the whole employees table in memory as
+ * {@link EmployeeColumns}, so lookups, listing and search don't go to the database.
+ * <p>
+ * The snapshot is loaded with parallel keyset-paged range scans, or at startup from a snapshot
+ * file, kept current by {@link EmployeeChangedEvent}s and periodically rebuilt, which also compacts
+ * strings left behind by updates. Events arriving during a rebuild are replayed onto the new copy
+ * before it is swapped in.
+ */
+@Component
+public class EmployeeSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSnapshot.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final int pageSize;
+    private final int parallelism;
+    private final Path file;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private EmployeeColumns columns;
+    private List<EmployeeChangedEvent> pendingDuringRefresh;
+    private volatile boolean loaded;
+
+    public EmployeeSnapshot(EmployeeRepository employeeRepository,
+                            @Value("${app.snapshot.enabled:false}") boolean enabled,
+                            @Value("${app.snapshot.page-size:5000}") int pageSize,
+                            @Value("${app.snapshot.scan-parallelism:4}") int parallelism,
+                            @Value("${app.snapshot.file:}") String file) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.file = file.isBlank() ? null : Path.of(file);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isServing() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Initial load, run by {@link SnapshotWarmup} before the web server accepts requests. Uses
+     * the snapshot file when it was written against the current database state, and parallel
+     * range scans otherwise.
+     */
+    public WarmupReport warmUp() {
+        long started = System.nanoTime();
+        if (file != null) {
+            try {
+                Optional<HighWaterMark> stored = SnapshotFile.readMark(file);
+                if (stored.isPresent() && stored.get().equals(highWaterMark())) {
+                    int rows = replace(fresh -> SnapshotFile.read(file, fresh::upsert));
+                    return report("file", rows, started);
+                }
+                log.info("Employee snapshot file {} is missing or stale, loading from the database", file);
+            } catch (IOException ex) {
+                log.warn("Ignoring unreadable employee snapshot file {}", file, ex);
+            }
+        }
+        return report("database", refresh(), started);
+    }
+
+    @EventListener(EmployeesImportedEvent.class)
+    @Scheduled(fixedDelayString = "${app.snapshot.refresh-interval:PT15M}",
+            initialDelayString = "${app.snapshot.refresh-interval:PT15M}")
+    public void scheduledRefresh() {
+        if (isServing()) {
+            HighWaterMark mark = highWaterMark();
+            refresh();
+            save(mark);
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the database.
+     *
+     * @return the number of rows loaded
+     */
+    public synchronized int refresh() {
+        try {
+            return replace(this::scan);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the snapshot file, if one is configured, for the next start to pick up.
+     */
+    public void save() {
+        if (isServing()) {
+            save(highWaterMark());
+        }
+    }
+
+    // The mark is taken before the rows are read: a write in between makes the file look stale
+    // rather than letting it pass for a state it does not contain.
+    private void save(HighWaterMark mark) {
+        if (file == null) {
+            return;
+        }
+        try {
+            SnapshotFile.write(file, mark, list());
+            log.info("Employee snapshot written to {}", file);
+        } catch (IOException ex) {
+            log.warn("Could not write employee snapshot file {}", file, ex);
+        }
+    }
+
+    private HighWaterMark highWaterMark() {
+        Instant lastUpdatedAt = employeeRepository.findLastUpdatedAt();
+        return new HighWaterMark(employeeRepository.findMaxId(), employeeRepository.count(),
+                lastUpdatedAt == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, lastUpdatedAt));
+    }
+
+    private synchronized int replace(Loader loader) throws IOException {
+        long started = System.nanoTime();
+        write(current -> {
+            pendingDuringRefresh = new ArrayList<>();
+            return null;
+        });
+        EmployeeColumns fresh;
+        try {
+            fresh = new EmployeeColumns(Math.max(size(), pageSize));
+            loader.load(fresh);
+        } catch (IOException | RuntimeException ex) {
+            write(current -> {
+                pendingDuringRefresh = null;
+                return null;
+            });
+            throw ex;
+        }
+
+        write(current -> {
+            pendingDuringRefresh.forEach(fresh::apply);
+            pendingDuringRefresh = null;
+            columns = fresh;
+            return null;
+        });
+        loaded = true;
+        log.info("Employee snapshot loaded {} rows in {} ms", fresh.size(), (System.nanoTime() - started) / 1_000_000);
+        return fresh.size();
+    }
+
+    /**
+     * Splits the id space into {@code scan-parallelism} ranges, keyset-pages through each on its
+     * own thread into a private {@link EmployeeColumns}, then appends the parts in id order.
+     */
+    private void scan(EmployeeColumns target) {
+        long maxId = employeeRepository.findMaxId();
+        int ranges = (int) Math.max(1, Math.min(parallelism, maxId / pageSize + 1));
+        long span = maxId / ranges + 1;
+        ExecutorService executor = Executors.newFixedThreadPool(ranges, runnable -> {
+            var thread = new Thread(runnable, "snapshot-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            var parts = new ArrayList<Future<EmployeeColumns>>();
+            for (int i = 0; i < ranges; i++) {
+                long after = i * span;
+                long upTo = Math.min(after + span, maxId);
+                parts.add(executor.submit(() -> scanRange(after, upTo)));
+            }
+            for (Future<EmployeeColumns> part : parts) {
+                part.get().list().forEach(target::upsert);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the employee snapshot", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Employee snapshot range scan failed", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private EmployeeColumns scanRange(long after, long upTo) {
+        var part = new EmployeeColumns(pageSize);
+        long lastId = after;
+        List<Employee> page;
+        do {
+            page = employeeRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                    lastId, upTo, PageRequest.of(0, pageSize));
+            page.forEach(part::upsert);
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+        return part;
+    }
+
+    private static WarmupReport report(String source, int rows, long started) {
+        return new WarmupReport(source, rows, (System.nanoTime() - started) / 1_000_000, Instant.now());
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        void load(EmployeeColumns target) throws IOException;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        write(current -> {
+            if (pendingDuringRefresh != null) {
+                pendingDuringRefresh.add(event);
+            }
+            if (current != null) {
+                current.apply(event);
+            }
+            return null;
+        });
+    }
+
+    public Optional<Employee> findById(long id) {
+        return Optional.ofNullable(read(current -> current.get(id)));
+    }
+
+    public List<Employee> list() {
+        return read(EmployeeColumns::list);
+    }
+
+    public List<Employee> search(String query) {
+        return read(current -> current.search(query));
+    }
+
+    public Optional<SnapshotFootprint> footprint() {
+        return Optional.ofNullable(read(current -> current == null ? null : current.footprint()));
+    }
+
+    private int size() {
+        return read(current -> current == null ? 0 : current.size());
+    }
+
+    private <T> T read(Function<EmployeeColumns, T> action) {
+        lock.readLock().lock();
+        try {
+            return action.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(Function<EmployeeColumns, T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.apply(columns);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
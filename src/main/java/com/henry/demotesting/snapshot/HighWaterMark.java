@@ -0,0 +1,11 @@
+package com.henry.demotesting.snapshot;
+
+/**
+ * Database state a snapshot file was written against. A file is only loaded when the table
+ * still reports the same mark; anything else means writes happened since and it is discarded.
+ * Inserts move {@code maxId}, deletes {@code count} and updates {@code lastUpdatedMicros}.
+ *
+ * @param lastUpdatedMicros latest {@code updated_at} of a live row, in microseconds since the epoch
+ */
+record HighWaterMark(long maxId, long count, long lastUpdatedMicros) {
+}
@@ -0,0 +1,159 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.model.Employee;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk copy of the snapshot for fast restarts.
+ * <p>
+ * Layout, big-endian: magic, version, high-water mark (max id, row count, last update), number of
+ * rows and a CRC32 of the body, then per row the id followed by first name, last name and email as
+ * length-prefixed UTF-8. Files are written to a temporary sibling and moved into place, and read
+ * through a memory mapping.
+ */
+final class SnapshotFile {
+
+    private static final int MAGIC = 0x454D5053;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 4 + 8;
+    private static final int NULL_LENGTH = -1;
+
+    private SnapshotFile() {
+    }
+
+    static void write(Path path, HighWaterMark mark, List<Employee> employees) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        var crc = new CRC32();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(mark.maxId());
+            out.writeLong(mark.count());
+            out.writeLong(mark.lastUpdatedMicros());
+            out.writeInt(employees.size());
+            out.writeLong(0); // CRC32 of the body, patched in once the rows are written
+            var row = ByteBuffer.allocate(1024);
+            for (Employee employee : employees) {
+                row = encode(row, employee);
+                crc.update(row.array(), 0, row.position());
+                out.write(row.array(), 0, row.position());
+            }
+        }
+        try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putLong(0, crc.getValue()), HEADER_BYTES - 8);
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * The mark a file was written against, empty when there is no readable snapshot at the path.
+     */
+    static Optional<HighWaterMark> readMark(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES) {
+            return Optional.empty();
+        }
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return Optional.empty();
+            }
+            return Optional.of(new HighWaterMark(header.getLong(), header.getLong(), header.getLong()));
+        }
+    }
+
+    /**
+     * Streams every row of the file into {@code sink}, after checking the checksum.
+     *
+     * @return the number of rows read
+     * @throws IOException when the file is truncated or does not match its checksum
+     */
+    static int read(Path path, Consumer<Employee> sink) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(HEADER_BYTES - 12);
+            int rows = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+            var crc = new CRC32();
+            crc.update(buffer.slice());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Snapshot file " + path + " does not match its checksum");
+            }
+            try {
+                for (int i = 0; i < rows; i++) {
+                    sink.accept(new Employee(buffer.getLong(), string(buffer), string(buffer), string(buffer)));
+                }
+            } catch (BufferUnderflowException ex) {
+                throw new IOException("Snapshot file " + path + " is truncated", ex);
+            }
+            return rows;
+        }
+    }
+
+    private static ByteBuffer encode(ByteBuffer row, Employee employee) {
+        byte[] firstName = bytes(employee.getFirstName());
+        byte[] lastName = bytes(employee.getLastName());
+        byte[] email = bytes(employee.getEmail());
+        int size = 8 + 12 + length(firstName) + length(lastName) + length(email);
+        if (row.capacity() < size) {
+            row = ByteBuffer.allocate(Math.max(size, row.capacity() * 2));
+        }
+        row.clear();
+        row.putLong(employee.getId());
+        put(row, firstName);
+        put(row, lastName);
+        put(row, email);
+        return row;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void put(ByteBuffer row, byte[] value) {
+        if (value == null) {
+            row.putInt(NULL_LENGTH);
+        } else {
+            row.putInt(value.length).put(value);
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,63 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.model.WarmupReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Loads the {@link EmployeeSnapshot} during context startup, in a lifecycle phase that runs
+ * before the web server starts, so the first requests after a deploy are already served from
+ * memory. On shutdown, after the web server has stopped taking requests, the snapshot is written
+ * to its file for the next start.
+ */
+@Component
+public class SnapshotWarmup implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotWarmup.class);
+
+    // The web server starts at SMART_LIFECYCLE_PHASE - 1024; lower phases start before it and stop after it.
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final EmployeeSnapshot employeeSnapshot;
+    private volatile boolean running;
+    private volatile WarmupReport report;
+
+    public SnapshotWarmup(EmployeeSnapshot employeeSnapshot) {
+        this.employeeSnapshot = employeeSnapshot;
+    }
+
+    @Override
+    public void start() {
+        if (employeeSnapshot.isEnabled()) {
+            report = employeeSnapshot.warmUp();
+            log.info("Employee snapshot warm-up loaded {} rows from the {} in {} ms",
+                    report.rowsLoaded(), report.source(), report.durationMillis());
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        employeeSnapshot.save();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    public Optional<WarmupReport> report() {
+        return Optional.ofNullable(report);
+    }
+}
@@ -0,0 +1,125 @@
+package com.henry.demotesting.snapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Locale;
+
+/**
+ * Append-only pool of deduplicated UTF-8 strings stored back to back in one {@code byte[]}.
+ * Entries are addressed by an {@code int} reference; {@link #NULL} stands for a {@code null} string.
+ * Replaced values are not reclaimed, the owning snapshot compacts by rebuilding.
+ */
+final class Utf8Pool {
+
+    static final int NULL = -1;
+
+    private byte[] data = new byte[4096];
+    private int dataLength;
+    private int[] offsets = new int[257];
+    private int count;
+    private int[] table = filled(512);
+
+    int intern(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int mask = table.length - 1;
+        for (int i = Arrays.hashCode(bytes) & mask; ; i = (i + 1) & mask) {
+            int ref = table[i];
+            if (ref == NULL) {
+                ref = append(bytes);
+                table[i] = ref;
+                if (count * 2 > table.length) {
+                    rehash();
+                }
+                return ref;
+            }
+            if (equalsAt(ref, bytes)) {
+                return ref;
+            }
+        }
+    }
+
+    String get(int ref) {
+        if (ref == NULL) {
+            return null;
+        }
+        return new String(data, offsets[ref], length(ref), StandardCharsets.UTF_8);
+    }
+
+    int length(int ref) {
+        return ref == NULL ? 0 : offsets[ref + 1] - offsets[ref];
+    }
+
+    /**
+     * Marks every entry containing {@code query}, ignoring case. Each distinct string is decoded
+     * once, however many rows reference it.
+     */
+    BitSet matching(String query) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        var matches = new BitSet(count);
+        for (int ref = 0; ref < count; ref++) {
+            if (get(ref).toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.set(ref);
+            }
+        }
+        return matches;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long bytes() {
+        return 16L + data.length + 16L + offsets.length * 4L + 16L + table.length * 4L;
+    }
+
+    private int append(byte[] bytes) {
+        if (dataLength + bytes.length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + bytes.length));
+        }
+        if (count + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        System.arraycopy(bytes, 0, data, dataLength, bytes.length);
+        offsets[count] = dataLength;
+        dataLength += bytes.length;
+        offsets[count + 1] = dataLength;
+        return count++;
+    }
+
+    private boolean equalsAt(int ref, byte[] bytes) {
+        int from = offsets[ref];
+        return Arrays.equals(data, from, from + length(ref), bytes, 0, bytes.length);
+    }
+
+    private void rehash() {
+        table = filled(table.length * 2);
+        int mask = table.length - 1;
+        for (int ref = 0; ref < count; ref++) {
+            int from = offsets[ref];
+            int hash = hash(from, from + length(ref));
+            int i = hash & mask;
+            while (table[i] != NULL) {
+                i = (i + 1) & mask;
+            }
+            table[i] = ref;
+        }
+    }
+
+    private int hash(int from, int to) {
+        int result = 1;
+        for (int i = from; i < to; i++) {
+            result = 31 * result + data[i];
+        }
+        return result;
+    }
+
+    private static int[] filled(int size) {
+        int[] slots = new int[size];
+        Arrays.fill(slots, NULL);
+        return slots;
+    }
+}
@@ -0,0 +1,132 @@
+package com.henry.demotesting.stats;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeStats;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory headcount aggregates kept up to date from {@link EmployeeChangedEvent}s.
+ * <p>
+ * The counters are built once from three grouped queries and then only adjusted by writes going
+ * through the service. Writes that bypass it (or race with a rebuild) are corrected by the
+ * periodic reconciliation, which rebuilds the counters from the database and swaps them in.
+ */
+@Component
+public class EmployeeCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeCounters.class);
+
+    private final EmployeeRepository employeeRepository;
+    private volatile Tally tally;
+
+    public EmployeeCounters(EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    public EmployeeStats stats() {
+        Tally current = tally;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.toStats();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, EmployeesImportedEvent.class})
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${app.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    private synchronized Tally rebuild() {
+        var fresh = new Tally(Instant.now());
+        fresh.total.add(employeeRepository.count());
+        load(fresh.byEmailDomain, employeeRepository.countByEmailDomain());
+        load(fresh.byLastNameInitial, employeeRepository.countByLastNameInitial());
+
+        Tally previous = tally;
+        if (previous != null && previous.total.sum() != fresh.total.sum()) {
+            log.info("Employee counters drifted from {} to {} rows, corrected", previous.total.sum(), fresh.total.sum());
+        }
+        tally = fresh;
+        return fresh;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Tally current = tally;
+        if (current == null) {
+            return;
+        }
+        if (event.previous() != null) {
+            current.apply(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            current.apply(event.current(), 1);
+        }
+    }
+
+    static String emailDomain(String email) {
+        return email.substring(email.indexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    static String lastNameInitial(String lastName) {
+        return lastName.isEmpty() ? "" : lastName.substring(0, 1).toUpperCase(Locale.ROOT);
+    }
+
+    private static void load(Map<String, LongAdder> target, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            var adder = new LongAdder();
+            adder.add(((Number) row[1]).longValue());
+            target.put(String.valueOf(row[0]), adder);
+        }
+    }
+
+    private static final class Tally {
+        private final Instant reconciledAt;
+        private final LongAdder total = new LongAdder();
+        private final Map<String, LongAdder> byEmailDomain = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> byLastNameInitial = new ConcurrentHashMap<>();
+
+        private Tally(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+
+        private void apply(Employee employee, int delta) {
+            total.add(delta);
+            byEmailDomain.computeIfAbsent(emailDomain(employee.getEmail()), key -> new LongAdder()).add(delta);
+            byLastNameInitial.computeIfAbsent(lastNameInitial(employee.getLastName()), key -> new LongAdder()).add(delta);
+        }
+
+        private EmployeeStats toStats() {
+            return new EmployeeStats(total.sum(), snapshot(byEmailDomain), snapshot(byLastNameInitial), reconciledAt);
+        }
+
+        private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+            var result = new TreeMap<String, Long>();
+            counters.forEach((key, adder) -> {
+                long count = adder.sum();
+                if (count > 0) {
+                    result.put(key, count);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.henry.demotesting.sync;
+
+import com.henry.demotesting.exception.ExpiredChangeTokenException;
+import com.henry.demotesting.model.ChangePage;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Incremental sync for replicas of the employees table.
+ * <p>
+ * Every write moves the row's {@code updated_at}, soft deletes included, so keyset paging over the
+ * {@code (updated_at, id)} index returns each created, updated or deleted row since a token, at a
+ * cost proportional to the number of changes. Rows written within the last
+ * {@code app.sync.settle-window} are held back: their transactions may not have committed yet, and
+ * a row that shows up later with an earlier {@code updated_at} would be skipped for good.
+ * <p>
+ * {@code updated_at} is assigned by the database and the settled point is read from the same
+ * clock, so application instances with skewed clocks can't write positions behind one another.
+ * What remains is assumed: one database clock, and the settle window longer than the gap between
+ * a write's statement time and its commit, i.e. the longest write transaction.
+ * <p>
+ * Deletes are only visible while their tombstone exists, so a token whose pass through the feed
+ * began longer than the purge {@code min-age} ago is rejected and the client has to run a full
+ * sync again. The age of the rows being paged over doesn't matter: a full sync starts a pass at
+ * the current settled point, however old the table's rows are.
+ */
+@Component
+public class ChangeFeed {
+
+    // Native on purpose: the @SQLRestriction on Employee would hide the tombstones.
+    static final String PAGE_SQL = "select id, first_name, last_name, email, updated_at, deleted_at from employees "
+            + "where (updated_at > ? or (updated_at = ? and id > ?)) and updated_at <= ? "
+            + "order by updated_at, id limit ?";
+    static final String NOW_SQL = "select current_timestamp(6)";
+
+    private static final RowMapper<EmployeeChange> CHANGE_MAPPER = (rs, rowNum) -> {
+        long id = rs.getLong("id");
+        Instant changedAt = rs.getTimestamp("updated_at").toInstant();
+        if (rs.getTimestamp("deleted_at") != null) {
+            return new EmployeeChange(EmployeeChange.Type.DELETE, id, null, changedAt);
+        }
+        return new EmployeeChange(EmployeeChange.Type.UPSERT, id,
+                new Employee(id, rs.getString("first_name"), rs.getString("last_name"), rs.getString("email")),
+                changedAt);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration settleWindow;
+    private final Duration retention;
+    private final int maxPageSize;
+
+    public ChangeFeed(JdbcTemplate jdbcTemplate,
+                      @Value("${app.sync.settle-window:PT5S}") Duration settleWindow,
+                      @Value("${app.purge.min-age:PT24H}") Duration retention,
+                      @Value("${app.sync.max-page-size:5000}") int maxPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.settleWindow = settleWindow;
+        this.retention = retention;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Changes after {@code token}, oldest first. Without a token the feed starts from the
+     * beginning, which amounts to a full sync.
+     *
+     * @throws com.henry.demotesting.exception.InvalidChangeTokenException when the token can't be decoded
+     * @throws ExpiredChangeTokenException when deletes since the token may have been purged
+     */
+    public ChangePage changesSince(String token, int limit) {
+        Instant now = jdbcTemplate.queryForObject(NOW_SQL, Timestamp.class).toInstant();
+        ChangeToken from = ChangeToken.decode(token);
+        if (!from.isStart() && from.since().isBefore(now.minus(retention))) {
+            throw new ExpiredChangeTokenException("Change token from " + from.since()
+                    + " is older than the " + retention + " tombstone retention, run a full sync");
+        }
+        Instant settled = now.minus(settleWindow).truncatedTo(ChronoUnit.MICROS);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        Timestamp after = Timestamp.from(from.updatedAt());
+        List<EmployeeChange> changes = jdbcTemplate.query(PAGE_SQL, CHANGE_MAPPER,
+                after, after, from.id(), Timestamp.from(settled), pageSize + 1);
+
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+            EmployeeChange last = changes.get(changes.size() - 1);
+            // Mid-pass: the pass keeps the point it started from, a full sync the current one.
+            Instant since = from.isStart() ? settled : from.since();
+            return new ChangePage(changes, new ChangeToken(last.changedAt(), last.id(), since).encode(), true);
+        }
+        // Caught up: everything up to the settled point has been returned, so the next token
+        // starts there, and an idle client's token does not age out of the retention window.
+        ChangeToken next = from.updatedAt().isAfter(settled) ? from : new ChangeToken(settled, Long.MAX_VALUE, settled);
+        return new ChangePage(changes, next.encode(), false);
+    }
+}
@@ -0,0 +1,51 @@
+package com.henry.demotesting.sync;
+
+import com.henry.demotesting.exception.InvalidChangeTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Position in the change feed: the {@code (updated_at, id)} of the last change a client has seen,
+ * and {@code since}, the point up to which the client's copy was complete when its current pass
+ * through the feed began. Retention is checked against {@code since}, not the position, so a full
+ * sync can page through rows of any age. Encoded as opaque URL-safe base64 so clients don't build
+ * tokens themselves.
+ */
+record ChangeToken(Instant updatedAt, long id, Instant since) {
+
+    static final ChangeToken START = new ChangeToken(Instant.EPOCH, 0, Instant.EPOCH);
+
+    private static final String VERSION = "v1";
+
+    static ChangeToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4 || !parts[0].equals(VERSION)) {
+                throw new InvalidChangeTokenException("Unrecognized change token: " + token);
+            }
+            return new ChangeToken(micros(parts[1]), Long.parseLong(parts[2]), micros(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidChangeTokenException("Malformed change token: " + token, ex);
+        }
+    }
+
+    String encode() {
+        String raw = VERSION + ":" + ChronoUnit.MICROS.between(Instant.EPOCH, updatedAt) + ":" + id
+                + ":" + ChronoUnit.MICROS.between(Instant.EPOCH, since);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean isStart() {
+        return equals(START);
+    }
+
+    private static Instant micros(String value) {
+        return Instant.EPOCH.plus(Long.parseLong(value), ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,42 @@
+package com.henry.demotesting.trace;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Opens a trace per request, named after the handler's URL pattern so that all
+ * {@code PUT /api/employees/{id}} calls share one endpoint. Asynchronous responses are traced up
+ * to the point where the handler hands off to another thread.
+ */
+class TraceInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String UNMATCHED = "(unmatched)";
+
+    private final Tracer tracer;
+
+    TraceInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            tracer.begin(request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        tracer.end(response.getStatus());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        tracer.end(response.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package com.henry.demotesting.trace;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a span for writing the response body. It is called right before the message converter
+ * runs and the span is left open, so it ends with the trace once the body has been written.
+ */
+@ControllerAdvice
+public class TraceResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final Tracer tracer;
+
+    public TraceResponseBodyAdvice(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracer.isTracing();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        tracer.span("serialize", selectedContentType.toString());
+        return body;
+    }
+}
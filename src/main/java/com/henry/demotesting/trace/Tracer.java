@@ -0,0 +1,233 @@
+package com.henry.demotesting.trace;
+
+import com.henry.demotesting.jdbc.SqlLogListener;
+import com.henry.demotesting.jdbc.StatementExecution;
+import com.henry.demotesting.jdbc.StatementListener;
+import com.henry.demotesting.model.RequestTrace;
+import com.henry.demotesting.model.TraceSpan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-process request tracing. A sampled request gets a trace bound to its thread; controller and
+ * service calls ({@link Traced}), JDBC statements and response serialization add spans to it.
+ * Finished traces are kept per endpoint, only the {@code app.tracing.slowest-per-endpoint}
+ * slowest. Requests that are not sampled cost one {@link ThreadLocal} lookup per span site.
+ */
+@Component
+public class Tracer implements StatementListener {
+
+    private final double sampleRate;
+    private final int slowestPerEndpoint;
+    private final int maxSpans;
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+    private final Map<String, SlowestTraces> endpoints = new ConcurrentHashMap<>();
+
+    public Tracer(@Value("${app.tracing.sample-rate:0.1}") double sampleRate,
+                  @Value("${app.tracing.slowest-per-endpoint:10}") int slowestPerEndpoint,
+                  @Value("${app.tracing.max-spans:256}") int maxSpans) {
+        this.sampleRate = sampleRate;
+        this.slowestPerEndpoint = slowestPerEndpoint;
+        this.maxSpans = maxSpans;
+    }
+
+    /**
+     * Starts a trace for the request on this thread, if it is sampled.
+     *
+     * @return whether the request is traced
+     */
+    public boolean begin(String endpoint) {
+        current.remove();
+        if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        var trace = new ActiveTrace(endpoint, maxSpans);
+        current.set(trace);
+        trace.open(endpoint, null);
+        return true;
+    }
+
+    /**
+     * Ends the trace on this thread, closing any span still open, and keeps it if it is among
+     * the slowest for its endpoint.
+     */
+    public void end(int status) {
+        ActiveTrace trace = current.get();
+        if (trace == null) {
+            return;
+        }
+        current.remove();
+        endpoints.computeIfAbsent(trace.endpoint, endpoint -> new SlowestTraces(slowestPerEndpoint))
+                .offer(trace.finish(status));
+    }
+
+    public boolean isTracing() {
+        return current.get() != null;
+    }
+
+    public Scope span(String name) {
+        return span(name, null);
+    }
+
+    public Scope span(String name, String detail) {
+        ActiveTrace trace = current.get();
+        return trace == null ? Scope.NOOP : trace.open(name, detail);
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        ActiveTrace trace = current.get();
+        if (trace != null) {
+            String sql = SqlLogListener.shapeOf(execution);
+            trace.add("jdbc", execution.batchSize() > 0 ? sql + " batch=" + execution.batchSize() : sql,
+                    execution.elapsedNanos());
+        }
+    }
+
+    /**
+     * The retained traces by endpoint, slowest first.
+     */
+    public Map<String, List<RequestTrace>> slowest() {
+        var result = new TreeMap<String, List<RequestTrace>>();
+        endpoints.forEach((endpoint, traces) -> result.put(endpoint, traces.list()));
+        return result;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * An open span, closed by {@link #close()}. Spans that are never closed end with the trace.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NOOP = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private static final class ActiveTrace {
+
+        private final String endpoint;
+        private final int maxSpans;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final List<OpenSpan> spans = new ArrayList<>();
+        private int depth;
+        private int dropped;
+
+        private ActiveTrace(String endpoint, int maxSpans) {
+            this.endpoint = endpoint;
+            this.maxSpans = maxSpans;
+        }
+
+        private Scope open(String name, String detail) {
+            if (spans.size() >= maxSpans) {
+                dropped++;
+                return Scope.NOOP;
+            }
+            var span = new OpenSpan(name, detail, depth, System.nanoTime());
+            spans.add(span);
+            depth++;
+            return () -> close(span);
+        }
+
+        private void close(OpenSpan span) {
+            if (span.endNanos == 0) {
+                span.endNanos = System.nanoTime();
+                depth = span.depth;
+            }
+        }
+
+        // A span for work that has already completed, such as a statement reported after it ran.
+        private void add(String name, String detail, long elapsedNanos) {
+            if (spans.size() >= maxSpans) {
+                dropped++;
+                return;
+            }
+            long now = System.nanoTime();
+            var span = new OpenSpan(name, detail, depth, now - elapsedNanos);
+            span.endNanos = now;
+            spans.add(span);
+        }
+
+        private RequestTrace finish(int status) {
+            long now = System.nanoTime();
+            var finished = new ArrayList<TraceSpan>(spans.size());
+            for (OpenSpan span : spans) {
+                long end = span.endNanos == 0 ? now : span.endNanos;
+                finished.add(new TraceSpan(span.name, span.detail, span.depth,
+                        millis(Math.max(0, span.startNanos - startNanos)), millis(end - span.startNanos)));
+            }
+            return new RequestTrace(endpoint, status, startedAt, millis(now - startNanos), dropped, finished);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    private static final class OpenSpan {
+
+        private final String name;
+        private final String detail;
+        private final int depth;
+        private final long startNanos;
+        private long endNanos;
+
+        private OpenSpan(String name, String detail, int depth, long startNanos) {
+            this.name = name;
+            this.detail = detail;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final class SlowestTraces {
+
+        private final int capacity;
+        private final PriorityQueue<RequestTrace> fastestFirst =
+                new PriorityQueue<>(Comparator.comparingDouble(RequestTrace::durationMillis));
+        // Duration of the fastest retained trace once full; anything not slower is skipped unlocked.
+        private volatile double floorMillis = -1;
+
+        private SlowestTraces(int capacity) {
+            this.capacity = capacity;
+        }
+
+        private void offer(RequestTrace trace) {
+            if (capacity <= 0 || trace.durationMillis() <= floorMillis) {
+                return;
+            }
+            synchronized (this) {
+                fastestFirst.offer(trace);
+                if (fastestFirst.size() > capacity) {
+                    fastestFirst.poll();
+                }
+                if (fastestFirst.size() == capacity) {
+                    floorMillis = fastestFirst.peek().durationMillis();
+                }
+            }
+        }
+
+        private synchronized List<RequestTrace> list() {
+            var traces = new ArrayList<>(fastestFirst);
+            traces.sort(Comparator.comparingDouble(RequestTrace::durationMillis).reversed());
+            return traces;
+        }
+    }
+}
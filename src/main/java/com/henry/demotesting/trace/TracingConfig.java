@@ -0,0 +1,75 @@
+package com.henry.demotesting.trace;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig implements WebMvcConfigurer {
+
+    private final Tracer tracer;
+
+    public TracingConfig(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TraceInterceptor(tracer)).addPathPatterns("/api/employees/**");
+    }
+
+    /**
+     * Wraps {@link Traced} beans in a proxy that opens a span named {@code Type.method} around
+     * every call made while a trace is active.
+     */
+    @Bean
+    public static BeanPostProcessor tracedBeanPostProcessor(ObjectProvider<Tracer> tracer) {
+        Supplier<Tracer> lookup = SingletonSupplier.of(tracer::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                Class<?> type = AopUtils.getTargetClass(bean);
+                if (!AnnotatedElementUtils.hasAnnotation(type, Traced.class)) {
+                    return bean;
+                }
+                MethodInterceptor advice = spanAdvice(lookup, type.getSimpleName());
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, advice);
+                    return bean;
+                }
+                var factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice(advice);
+                return factory.getProxy(type.getClassLoader());
+            }
+        };
+    }
+
+    private static MethodInterceptor spanAdvice(Supplier<Tracer> lookup, String typeName) {
+        Map<Method, String> names = new ConcurrentHashMap<>();
+        return invocation -> {
+            Tracer tracer = lookup.get();
+            Method method = invocation.getMethod();
+            if (!tracer.isTracing() || method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            try (var span = tracer.span(names.computeIfAbsent(method, m -> typeName + "." + m.getName()))) {
+                return invocation.proceed();
+            }
+        };
+    }
+}
@@ -0,0 +1,3 @@
+alter table employees add column deleted_at timestamp(6) null;
+
+create index idx_employees_deleted_at on employees (deleted_at);
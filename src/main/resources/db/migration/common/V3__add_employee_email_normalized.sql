@@ -0,0 +1,5 @@
+alter table employees add column email_normalized varchar(255) null;
+
+update employees set email_normalized = lower(trim(email));
+
+create index idx_employees_email_normalized on employees (email_normalized);
@@ -0,0 +1,5 @@
+alter table employees add column updated_at timestamp(6) null;
+
+update employees set updated_at = coalesce(deleted_at, current_timestamp(6));
+
+create index idx_employees_updated_at on employees (updated_at, id);
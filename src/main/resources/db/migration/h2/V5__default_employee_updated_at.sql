@@ -0,0 +1,3 @@
+alter table employees alter column updated_at set default current_timestamp(6);
+
+alter table employees alter column updated_at set on update current_timestamp(6);
@@ -0,0 +1,2 @@
+alter table employees modify column updated_at timestamp(6) null
+    default current_timestamp(6) on update current_timestamp(6);
@@ -0,0 +1,172 @@
+package com.henry.demotesting.benchmark;
+
+import com.henry.demotesting.DemoTestingApplication;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.service.EmployeeBulkService;
+import com.henry.demotesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to apply 1000 mixed operations (half creates, 30% updates, 20% deletes): {@code bulk}
+ * sends them as one NDJSON stream to {@link EmployeeBulkService}, {@code single} makes the
+ * {@link EmployeeService} calls the single-operation endpoints make, one JPA transaction and one
+ * round of checks per operation. Both run in the application context with its event listeners,
+ * so the comparison is the one a client sees when it switches to {@code _bulk}. HTTP is left out,
+ * so the gap shown is the server side only; over the network every single call also pays a round
+ * trip. Runs against an in-memory H2 database migrated by the application's Flyway setup,
+ * reseeded before every iteration. The single-operation path takes far longer to warm up than the
+ * bulk one, hence the long warmup.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.henry.demotesting.benchmark.EmployeeBulkBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 60)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmployeeBulkBenchmark {
+
+    private static final int OPERATIONS = 1000;
+
+    @Param({"bulk", "single"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private EmployeeService employeeService;
+    private EmployeeBulkService employeeBulkService;
+    private List<Operation> operations;
+    private String ndjson;
+    private int iteration;
+
+    private enum Kind { CREATE, UPDATE, DELETE }
+
+    private record Operation(Kind kind, Long id, String email) {
+
+        String toJson() {
+            return switch (kind) {
+                case CREATE -> "{\"op\":\"create\",\"employee\":{\"firstName\":\"Tony\",\"lastName\":\"Stark\","
+                        + "\"email\":\"" + email + "\"}}";
+                case UPDATE -> "{\"op\":\"update\",\"id\":" + id + ",\"employee\":{\"firstName\":\"Henry\","
+                        + "\"lastName\":\"Nguyen\",\"email\":\"" + email + "\"}}";
+                case DELETE -> "{\"op\":\"delete\",\"id\":" + id + "}";
+            };
+        }
+    }
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(DemoTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                // arguments rather than properties(), which are defaults that application.yml overrides
+                .run("--spring.datasource.url=jdbc:h2:mem:bulk-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        employeeService = context.getBean(EmployeeService.class);
+        employeeBulkService = context.getBean(EmployeeBulkService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void seed() {
+        iteration++;
+        jdbcTemplate.update("delete from employees");
+        var rows = new ArrayList<Object[]>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            String email = "seed" + iteration + "-" + i + "@example.com";
+            rows.add(new Object[]{"Henry", "Xiloj", email, Employee.normalizeEmail(email)});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into employees (first_name, last_name, email, email_normalized) values (?, ?, ?, ?)", rows);
+        List<Long> ids = jdbcTemplate.queryForList("select id from employees order by id", Long.class);
+
+        operations = new ArrayList<>(OPERATIONS);
+        for (int i = 0; i < OPERATIONS; i++) {
+            int kind = i % 10;
+            if (kind < 5) {
+                operations.add(new Operation(Kind.CREATE, null, "new" + iteration + "-" + i + "@example.com"));
+            } else if (kind < 8) {
+                operations.add(new Operation(Kind.UPDATE, ids.get(i), "updated" + iteration + "-" + i + "@example.com"));
+            } else {
+                operations.add(new Operation(Kind.DELETE, ids.get(i), null));
+            }
+        }
+        ndjson = String.join("\n", operations.stream().map(Operation::toJson).toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int apply() throws IOException {
+        if (mode.equals("bulk")) {
+            var out = new ByteArrayOutputStream();
+            employeeBulkService.execute(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+            return out.size();
+        }
+        int applied = 0;
+        for (Operation operation : operations) {
+            applied += apply(operation);
+        }
+        return applied;
+    }
+
+    // The calls EmployeeController makes for POST, PUT and DELETE.
+    private int apply(Operation operation) {
+        switch (operation.kind()) {
+            case CREATE -> employeeService.saveEmployee(new Employee(null, "Tony", "Stark", operation.email()));
+            case UPDATE -> {
+                return employeeService.findById(operation.id())
+                        .map(saved -> employeeService.updateEmployee(saved.toBuilder()
+                                .firstName("Henry")
+                                .lastName("Nguyen")
+                                .email(operation.email())
+                                .build()))
+                        .isPresent() ? 1 : 0;
+            }
+            case DELETE -> employeeService.deleteEmployee(operation.id());
+        }
+        return 1;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeBulkBenchmark.class.getSimpleName()).build()).run();
+    }
+}
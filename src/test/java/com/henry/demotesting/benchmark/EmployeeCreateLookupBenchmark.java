@@ -0,0 +1,122 @@
+package com.henry.demotesting.benchmark;
+
+import com.henry.demotesting.model.Employee;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one {@code saveEmployee} at 10k, 100k and 1M rows: the duplicate-email check followed
+ * by the insert, rolled back so the table keeps its size. {@code email} is the old exact match on
+ * the unindexed column, {@code email_normalized} the indexed lookup behind
+ * {@code EmployeeRepository.findByEmail}. Runs against an in-memory H2 database migrated with the
+ * application's Flyway scripts, so absolute numbers are lower than on MySQL but the scaling is the
+ * same.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.henry.demotesting.benchmark.EmployeeCreateLookupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmployeeCreateLookupBenchmark {
+
+    private static final String INSERT_SQL =
+            "insert into employees (first_name, last_name, email, email_normalized) values (?, ?, ?, ?)";
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"email", "email_normalized"})
+    public String lookup;
+
+    private Connection connection;
+    private PreparedStatement select;
+    private PreparedStatement insert;
+    private long next;
+
+    @Setup
+    public void setup() throws SQLException {
+        String url = "jdbc:h2:mem:create-lookup-" + rows + "-" + lookup + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load().migrate();
+        connection = DriverManager.getConnection(url, "sa", "");
+        connection.setAutoCommit(false);
+        try (var fill = connection.prepareStatement(INSERT_SQL)) {
+            for (int i = 1; i <= rows; i++) {
+                String email = "Employee" + i + "@Example.com";
+                fill.setString(1, "Henry");
+                fill.setString(2, "Xiloj");
+                fill.setString(3, email);
+                fill.setString(4, Employee.normalizeEmail(email));
+                fill.addBatch();
+                if (i % 10_000 == 0) {
+                    fill.executeBatch();
+                }
+            }
+            fill.executeBatch();
+        }
+        connection.commit();
+        select = connection.prepareStatement(
+                "select id from employees where " + lookup + " = ? and deleted_at is null limit 1");
+        insert = connection.prepareStatement(INSERT_SQL);
+        next = rows;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+    }
+
+    @Benchmark
+    public boolean create() throws SQLException {
+        String email = "new" + (++next) + "@example.com";
+        select.setString(1, lookup.equals("email") ? email : Employee.normalizeEmail(email));
+        boolean taken;
+        try (ResultSet rs = select.executeQuery()) {
+            taken = rs.next();
+        }
+        if (!taken) {
+            insert.setString(1, "Henry");
+            insert.setString(2, "Xiloj");
+            insert.setString(3, email);
+            insert.setString(4, Employee.normalizeEmail(email));
+            insert.executeUpdate();
+        }
+        connection.rollback();
+        return taken;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeCreateLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
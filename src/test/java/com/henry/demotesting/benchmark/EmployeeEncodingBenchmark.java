@@ -0,0 +1,89 @@
+package com.henry.demotesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.henry.demotesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of a 1000 employee list in JSON, CBOR and Smile, the payload of
+ * {@code GET /api/employees} for each {@code Accept} type. Payload sizes are printed during
+ * setup.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.henry.demotesting.benchmark.EmployeeEncodingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+    private List<Employee> employees;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        reader = mapper.readerForListOf(Employee.class);
+        employees = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName("Henry" + id)
+                    .lastName("Xiloj")
+                    .email("henry" + id + "@gmail.com")
+                    .build());
+        }
+        encoded = mapper.writeValueAsBytes(employees);
+        System.out.printf("%n%s payload: %d bytes for %d employees%n", format, encoded.length, employees.size());
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeEncodingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.henry.demotesting.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.json.EmployeeJsonConverter;
+import com.henry.demotesting.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written {@link EmployeeJsonConverter} with the default Jackson converter on
+ * the payloads of {@code GET /api/employees} and {@code POST /api/employees}.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.henry.demotesting.benchmark.EmployeeJsonBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    private static final Type EMPLOYEE_LIST = ResolvableType.forClassWithGenerics(List.class, Employee.class).getType();
+
+    @Param({"1", "1000"})
+    public int employees;
+
+    private List<Employee> list;
+    private byte[] singleJson;
+    private EmployeeJsonConverter streaming;
+    private MappingJackson2HttpMessageConverter jackson;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        streaming = new EmployeeJsonConverter(objectMapper);
+        jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        list = new ArrayList<>(employees);
+        for (long id = 1; id <= employees; id++) {
+            list.add(Employee.builder()
+                    .id(id)
+                    .firstName("Henry" + id)
+                    .lastName("Xiloj")
+                    .email("henry" + id + "@gmail.com")
+                    .build());
+        }
+        singleJson = objectMapper.writeValueAsBytes(list.get(0));
+    }
+
+    @Benchmark
+    public byte[] writeListStreaming() throws IOException {
+        var output = new MockHttpOutputMessage();
+        streaming.write(list, EMPLOYEE_LIST, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public byte[] writeListObjectMapper() throws IOException {
+        var output = new MockHttpOutputMessage();
+        jackson.write(list, EMPLOYEE_LIST, MediaType.APPLICATION_JSON, output);
+        return output.getBodyAsBytes();
+    }
+
+    @Benchmark
+    public Object readStreaming() throws IOException {
+        return streaming.read(Employee.class, null, new MockHttpInputMessage(singleJson));
+    }
+
+    @Benchmark
+    public Object readObjectMapper() throws IOException {
+        return jackson.read(Employee.class, null, new MockHttpInputMessage(singleJson));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,8 +1,21 @@
 package com.henry.demotesting.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.henry.demotesting.compression.CompressedEmployeeList;
+import com.henry.demotesting.exception.ExpiredChangeTokenException;
+import com.henry.demotesting.idempotency.IdempotencyStore;
+import com.henry.demotesting.json.EmployeeStreamWriter;
+import com.henry.demotesting.model.ChangePage;
 import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeChange;
+import com.henry.demotesting.model.EmployeeStats;
+import com.henry.demotesting.model.ImportReport;
+import com.henry.demotesting.service.EmployeeBulkService;
+import com.henry.demotesting.service.EmployeeImportService;
 import com.henry.demotesting.service.EmployeeService;
+import com.henry.demotesting.trace.Tracer;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,23 +24,41 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
+@Import({IdempotencyStore.class, EmployeeStreamWriter.class, CompressedEmployeeList.class, Tracer.class})
 public class EmployeeControllerTests {
 
     @Autowired
@@ -36,9 +67,18 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeImportService employeeImportService;
+
+    @MockBean
+    private EmployeeBulkService employeeBulkService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CompressedEmployeeList compressedEmployeeList;
+
     private Employee employee;
 
     @BeforeEach
@@ -73,6 +113,84 @@ public class EmployeeControllerTests {
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
     }
 
+    //JUnit test for createEmployee retried with the same Idempotency-Key
+    @DisplayName("JUnit test for create Employee replayed by Idempotency-Key")
+    @Test
+    public  void givenIdempotencyKey_whenCreateEmployeeTwice_thenSaveOnceAndReplay() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behaviour that we are going test
+        mockMvc.perform(post("/api/employees")
+                .header(IdempotencyStore.HEADER, "create-henry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .header(IdempotencyStore.HEADER, "create-henry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee))
+        );
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+        verify(employeeService, times(1)).saveEmployee(ArgumentMatchers.any(Employee.class));
+    }
+
+    //JUnit test for importEmployees method
+    @DisplayName("JUnit test for CSV import of employees")
+    @Test
+    public  void givenCsvUpload_whenImportEmployees_thenReturnImportReport() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeImportService.importCsv(ArgumentMatchers.any())).willReturn(new ImportReport(2, 1, 1, 5, 200.0,
+                List.of(new ImportReport.RowError(3, "Invalid email: henry")), false));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/import")
+                .contentType("text/csv")
+                .content("firstName,lastName,email\nHenry,x,test@gmail.com\nHenry,x,henry\n")
+        );
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.rowsImported", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$.errors[0].line", CoreMatchers.is(3)));
+    }
+
+    //JUnit test for bulk method
+    @DisplayName("JUnit test for the NDJSON bulk endpoint")
+    @Test
+    public  void givenBulkOperations_whenBulk_thenStreamResultsAsNdjson() throws Exception {
+
+        //given  - precondition or setup
+        willAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class)
+                    .write("{\"index\":0,\"op\":\"delete\",\"status\":200,\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(employeeBulkService).execute(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/_bulk")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"op\":\"delete\",\"id\":1}\n")
+        );
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"index\":0,\"op\":\"delete\",\"status\":200,\"id\":1}\n"));
+    }
+
     //JUnit test for getAllEmployees method
     @DisplayName("Junit test for getAllEmployees method")
     @Test
@@ -102,6 +220,89 @@ public class EmployeeControllerTests {
 
     }
 
+    //JUnit test for searchEmployees method
+    @DisplayName("JUnit test for searchEmployees method")
+    @Test
+    public  void givenQuery_whenSearchEmployees_thenReturnMatches() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.searchEmployees("hen")).willReturn(List.of(employee));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/search").param("q", "hen"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(1)))
+                .andExpect(jsonPath("$[0].email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    //JUnit test for getEmployeeStats method
+    @DisplayName("JUnit test for getEmployeeStats method")
+    @Test
+    public  void givenStats_whenGetEmployeeStats_thenReturnCounts() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.getStats()).willReturn(new EmployeeStats(2,
+                Map.of("gmail.com", 2L), Map.of("X", 2L), Instant.now()));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/stats"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.total", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.byEmailDomain['gmail.com']", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.byLastNameInitial.X", CoreMatchers.is(2)));
+    }
+
+    //JUnit test for getChangesSince method
+    @DisplayName("JUnit test for getChangesSince method")
+    @Test
+    public  void givenToken_whenGetChangesSince_thenReturnChangePage() throws Exception {
+
+        //given  - precondition or setup
+        employee.setId(1L);
+        given(employeeService.getChangesSince("abc", 2)).willReturn(new ChangePage(List.of(
+                new EmployeeChange(EmployeeChange.Type.UPSERT, 1L, employee, Instant.now()),
+                new EmployeeChange(EmployeeChange.Type.DELETE, 2L, null, Instant.now())), "def", true));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes-since")
+                .param("token", "abc")
+                .param("limit", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.changes.length()", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.changes[0].type", CoreMatchers.is("UPSERT")))
+                .andExpect(jsonPath("$.changes[0].employee.email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(jsonPath("$.changes[1].type", CoreMatchers.is("DELETE")))
+                .andExpect(jsonPath("$.changes[1].id", CoreMatchers.is(2)))
+                .andExpect(jsonPath("$.nextToken", CoreMatchers.is("def")))
+                .andExpect(jsonPath("$.hasMore", CoreMatchers.is(true)));
+    }
+
+    //JUnit test for getChangesSince method with a token past the tombstone retention
+    @DisplayName("JUnit test for getChangesSince method (expired token)")
+    @Test
+    public  void givenExpiredToken_whenGetChangesSince_thenReturnGone() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.getChangesSince("old", 500))
+                .willThrow(new ExpiredChangeTokenException("Change token is too old"));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes-since").param("token", "old"));
+
+        // then - verify the output
+        response.andExpect(status().isGone())
+                .andDo(print());
+    }
+
     //JUnit test for getEmployeeById method
     @DisplayName("JUnit test for getEmployeeById method (positive scenario)")
     @Test
@@ -207,4 +408,206 @@ public class EmployeeControllerTests {
                 .andDo(print());
 
     }
+
+    //JUnit test for CBOR responses to binary consumers
+    @DisplayName("JUnit test for get Employee by id as CBOR")
+    @Test
+    public void givenCborAccept_whenGetEmployeeById_thenReturnCborEmployee() throws Exception {
+
+        //given  - precondition or setup
+        employee.setId(1L);
+        given(employeeService.findById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new CBORMapper().readValue(body, Employee.class)).isEqualTo(employee);
+    }
+
+    //JUnit test for Smile request bodies
+    @DisplayName("JUnit test for create Employee from a Smile body")
+    @Test
+    public void givenSmileBody_whenCreateEmployee_thenDecodedAndSaved() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.saveEmployee(ArgumentMatchers.any(Employee.class)))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(EmployeeStreamWriter.SMILE)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(new SmileMapper().writeValueAsBytes(employee)));
+
+        // then - verify the output
+        response.andExpect(status().isCreated())
+                .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+    }
+
+    //JUnit test for the streaming endpoint in each encoding
+    @DisplayName("JUnit test for streaming employees as NDJSON and CBOR")
+    @Test
+    public void givenEmployees_whenStream_thenOneValuePerEmployee() throws Exception {
+
+        //given  - precondition or setup
+        var second = Employee.builder().id(2L).firstName("Ana").lastName("Young").email("ana@test.com").build();
+        employee.setId(1L);
+        given(employeeService.streamEmployees()).willAnswer(invocation -> Stream.of(employee, second));
+
+        //when - action or the behaviour that we are going test
+        MvcResult ndjson = mockMvc.perform(get("/api/employees/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/employees/stream").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult smile = mockMvc.perform(get("/api/employees/stream").accept(EmployeeStreamWriter.SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        String lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(lines).isEqualTo(objectMapper.writeValueAsString(employee) + "\n"
+                + objectMapper.writeValueAsString(second) + "\n");
+
+        byte[] values = mockMvc.perform(asyncDispatch(cbor))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new CBORMapper().readerFor(Employee.class).<Employee>readValues(values).readAll())
+                .containsExactly(employee, second);
+
+        byte[] smileValues = mockMvc.perform(asyncDispatch(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeStreamWriter.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new SmileMapper().readerFor(Employee.class).<Employee>readValues(smileValues).readAll())
+                .containsExactly(employee, second);
+    }
+
+    //JUnit test for unsupported stream encodings
+    @DisplayName("JUnit test for streaming with an unsupported Accept header")
+    @Test
+    public void givenXmlAccept_whenStream_thenNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/employees/stream").accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    //JUnit test for an Accept header that can't be parsed
+    @DisplayName("JUnit test for streaming with a malformed Accept header")
+    @Test
+    public void givenMalformedAccept_whenStream_thenBadRequest() throws Exception {
+        mockMvc.perform(get("/api/employees/stream").header(HttpHeaders.ACCEPT, "application/"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //JUnit test for the pre-compressed list
+    @DisplayName("JUnit test for get all employees gzip-compressed from the cached copy")
+    @Test
+    public void givenLargeList_whenGetAllEmployeesWithGzip_thenServedFromCompressedCopy() throws Exception {
+
+        //given  - precondition or setup
+        List<Employee> listOfEmployees = largeList();
+        given(employeeService.getEmployees()).willReturn(listOfEmployees);
+        compressedEmployeeList.invalidate();
+
+        //when - action or the behaviour that we are going test
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        ResultActions response = mockMvc.perform(get("/api/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes())
+                .isEqualTo(objectMapper.writeValueAsBytes(listOfEmployees));
+        verify(employeeService, times(1)).getEmployees();
+
+        compressedEmployeeList.invalidate();
+        mockMvc.perform(get("/api/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        verify(employeeService, times(2)).getEmployees();
+    }
+
+    //JUnit test for the deflate copy
+    @DisplayName("JUnit test for get all employees deflate-compressed from the cached copy")
+    @Test
+    public void givenLargeList_whenGetAllEmployeesWithDeflate_thenServedFromCompressedCopy() throws Exception {
+
+        //given  - precondition or setup
+        List<Employee> listOfEmployees = largeList();
+        given(employeeService.getEmployees()).willReturn(listOfEmployees);
+        compressedEmployeeList.invalidate();
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0.5, deflate"));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "deflate"))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new InflaterInputStream(new ByteArrayInputStream(body)).readAllBytes())
+                .isEqualTo(objectMapper.writeValueAsBytes(listOfEmployees));
+    }
+
+    //JUnit test for clients that don't accept JSON
+    @DisplayName("JUnit test for get all employees with gzip but without JSON in the Accept header")
+    @Test
+    public void givenXmlAcceptWithGzip_whenGetAllEmployees_thenNotAcceptable() throws Exception {
+
+        //given  - precondition or setup
+        given(employeeService.getEmployees()).willReturn(largeList());
+        compressedEmployeeList.invalidate();
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .accept(MediaType.APPLICATION_XML)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // then - verify the output
+        response.andExpect(status().isNotAcceptable())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    //JUnit test for the list in a binary encoding
+    @DisplayName("JUnit test for get all employees as CBOR")
+    @Test
+    public void givenCborAccept_whenGetAllEmployees_thenCborList() throws Exception {
+
+        //given  - precondition or setup
+        List<Employee> listOfEmployees = largeList();
+        given(employeeService.getEmployees()).willReturn(listOfEmployees);
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // then - verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new CBORMapper().readerForListOf(Employee.class).<List<Employee>>readValue(body))
+                .isEqualTo(listOfEmployees);
+    }
+
+    private static List<Employee> largeList() {
+        List<Employee> listOfEmployees = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            listOfEmployees.add(Employee.builder().id(id).firstName("Henry" + id).lastName("x")
+                    .email("henry" + id + "@gmail.com").build());
+        }
+        return listOfEmployees;
+    }
 }
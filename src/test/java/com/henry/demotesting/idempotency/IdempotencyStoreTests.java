@@ -0,0 +1,178 @@
+package com.henry.demotesting.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdempotencyStoreTests {
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    public void setup() {
+        idempotencyStore = new IdempotencyStore(2, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    //JUnit test for a duplicate request arriving while the first one is running
+    @DisplayName("JUnit test for concurrent duplicate waiting on the in-flight request")
+    @Test
+    public void givenInFlightKey_whenDuplicateArrives_thenWaitsAndReplays() throws Exception {
+
+        //given  - precondition or setup
+        var calls = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        //when - action or the behaviour that we are going test
+        var first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("key-1", HttpMethod.POST, "body", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return new ResponseEntity<>("created", HttpStatus.CREATED);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        var second = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("key-1", HttpMethod.POST, "body", () -> {
+            calls.incrementAndGet();
+            return new ResponseEntity<>("duplicate", HttpStatus.CREATED);
+        }));
+        release.countDown();
+
+        // then - verify the output
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("created");
+        assertThat(second.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("created");
+        assertThat(second.get().getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    //JUnit test for a failed request not being remembered
+    @DisplayName("JUnit test for failed request releasing its key")
+    @Test
+    public void givenFailedRequest_whenRetried_thenRunsAgain() {
+
+        //given  - precondition or setup
+        assertThrows(IllegalArgumentException.class, () -> idempotencyStore.execute("key-2", HttpMethod.POST, "body", () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+
+        //when - action or the behaviour that we are going test
+        var response = idempotencyStore.execute("key-2", HttpMethod.POST, "body", () -> new ResponseEntity<>("ok", HttpStatus.CREATED));
+
+        // then - verify the output
+        assertThat(response.getBody()).isEqualTo("ok");
+        assertThat(response.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+    }
+
+    //JUnit test for an Error thrown by the action
+    @DisplayName("JUnit test for an Error releasing its key")
+    @Test
+    public void givenActionThrowingError_whenRetried_thenRunsAgain() {
+
+        //given  - precondition or setup
+        assertThrows(StackOverflowError.class, () -> idempotencyStore.execute("key-3", HttpMethod.POST, "body", () -> {
+            throw new StackOverflowError();
+        }));
+
+        //when - action or the behaviour that we are going test
+        var response = idempotencyStore.execute("key-3", HttpMethod.POST, "body",
+                () -> new ResponseEntity<>("ok", HttpStatus.CREATED));
+
+        // then - verify the output
+        assertThat(response.getBody()).isEqualTo("ok");
+        assertThat(response.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+    }
+
+    //JUnit test for a key reused with a different body
+    @DisplayName("JUnit test for rejecting a key reused for another request")
+    @Test
+    public void givenKeyUsedForOtherBody_whenExecute_thenUnprocessableEntity() {
+
+        //given  - precondition or setup
+        var calls = new AtomicInteger();
+        idempotencyStore.execute("key-4", HttpMethod.POST, "first body", () -> {
+            calls.incrementAndGet();
+            return new ResponseEntity<>("created", HttpStatus.CREATED);
+        });
+
+        //when - action or the behaviour that we are going test
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> idempotencyStore.execute("key-4", HttpMethod.POST, "second body", () -> {
+                    calls.incrementAndGet();
+                    return new ResponseEntity<>("created again", HttpStatus.CREATED);
+                }));
+
+        // then - verify the output
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    //JUnit test for the store staying within its bound
+    @DisplayName("JUnit test for evicting the oldest keys above the bound")
+    @Test
+    public void givenMoreKeysThanBound_whenExecute_thenOldestEvicted() {
+
+        //when - action or the behaviour that we are going test
+        for (int i = 0; i < 5; i++) {
+            int n = i;
+            idempotencyStore.execute("key-" + n, HttpMethod.POST, "body", () -> new ResponseEntity<>(n, HttpStatus.CREATED));
+        }
+
+        // then - verify the output
+        assertThat(idempotencyStore.size()).isEqualTo(2);
+    }
+
+    //JUnit test for the bound sparing requests still running
+    @DisplayName("JUnit test for not evicting a key whose first request is still running")
+    @Test
+    public void givenInFlightKeyAndOverflow_whenRetried_thenWaitsAndReplays() throws Exception {
+
+        //given  - precondition or setup
+        var calls = new AtomicInteger();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var first = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("slow", HttpMethod.POST, "body", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return new ResponseEntity<>("created", HttpStatus.CREATED);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            idempotencyStore.execute("key-" + n, HttpMethod.POST, "body", () -> new ResponseEntity<>(n, HttpStatus.CREATED));
+        }
+
+        //when - action or the behaviour that we are going test
+        var retry = CompletableFuture.supplyAsync(() -> idempotencyStore.execute("slow", HttpMethod.POST, "body", () -> {
+            calls.incrementAndGet();
+            return new ResponseEntity<>("duplicate", HttpStatus.CREATED);
+        }));
+        release.countDown();
+
+        // then - verify the output
+        assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("created");
+        assertThat(retry.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("created");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(idempotencyStore.size()).isEqualTo(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
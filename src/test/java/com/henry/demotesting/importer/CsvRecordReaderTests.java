@@ -0,0 +1,45 @@
+package com.henry.demotesting.importer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvRecordReaderTests {
+
+    //JUnit test for plain and quoted fields
+    @DisplayName("JUnit test for reading quoted fields and tracking lines")
+    @Test
+    public void givenQuotedFields_whenNext_thenFieldsUnescapedWithStartLine() throws IOException {
+
+        //given  - precondition or setup
+        var reader = new CsvRecordReader(new StringReader(
+                "firstName,lastName,email\r\n\n\"Henry, Jr\",\"x \"\"the\"\" 2nd\",test@gmail.com\n\"multi\nline\",y,\n"));
+
+        //when - action or the behaviour that we are going test
+        var header = reader.next();
+        var quoted = reader.next();
+        var multiline = reader.next();
+
+        // then - verify the output
+        assertThat(header.fields()).containsExactly("firstName", "lastName", "email");
+        assertThat(quoted.line()).isEqualTo(3);
+        assertThat(quoted.fields()).isEqualTo(List.of("Henry, Jr", "x \"the\" 2nd", "test@gmail.com"));
+        assertThat(multiline.line()).isEqualTo(4);
+        assertThat(multiline.fields()).containsExactly("multi\nline", "y", "");
+        assertThat(reader.next()).isNull();
+    }
+
+    //JUnit test for a quote that is never closed
+    @DisplayName("JUnit test for unterminated quoted field")
+    @Test
+    public void givenUnterminatedQuote_whenNext_thenThrowsIOException() {
+        var reader = new CsvRecordReader(new StringReader("\"Henry,x,test@gmail.com\n"));
+        assertThrows(IOException.class, reader::next);
+    }
+}
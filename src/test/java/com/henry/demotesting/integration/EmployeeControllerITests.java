@@ -4,13 +4,17 @@ package com.henry.demotesting.integration;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.henry.demotesting.model.Employee;
 import com.henry.demotesting.repository.EmployeeRepository;
+import com.henry.demotesting.sql.SqlStatementCounter;
+import com.henry.demotesting.sql.SqlStatementCounterConfig;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -18,6 +22,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -25,6 +30,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Import(SqlStatementCounterConfig.class)
 public class EmployeeControllerITests {
 
     @Autowired
@@ -36,6 +43,9 @@ public class EmployeeControllerITests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     private Employee employee;
 
     @BeforeEach
@@ -55,6 +65,7 @@ public class EmployeeControllerITests {
     public  void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
 
         //given  - precondition or setup
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(post("/api/employees")
@@ -68,6 +79,8 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", CoreMatchers.is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+        // email uniqueness check + insert
+        sqlStatementCounter.assertExecuted(2, 2);
     }
 
     //JUnit test for getAllEmployees method
@@ -86,6 +99,7 @@ public class EmployeeControllerITests {
         listOfEmployees.add(employee);
         listOfEmployees.add(employee1);
         employeeRepository.saveAll(listOfEmployees);
+        sqlStatementCounter.reset();
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees"));
 
@@ -94,6 +108,7 @@ public class EmployeeControllerITests {
                 .andDo(print())
                 .andExpect(jsonPath("$.size()"
                         , CoreMatchers.is(listOfEmployees.size())));
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -104,6 +119,7 @@ public class EmployeeControllerITests {
 
         //given  - precondition or setup
         var employee1 = employeeRepository.save(employee);
+        sqlStatementCounter.reset();
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employee1.getId()));
 
@@ -113,6 +129,7 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", CoreMatchers.is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee.getEmail())));
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -121,15 +138,16 @@ public class EmployeeControllerITests {
     @Test
     public  void givenEmployeeId_whenGetEmployeeId_thenReturnNegativeScenarioEmployeeObject() throws Exception {
 
-        long employeeId = 1L;
         //given  - precondition or setup
-        employeeRepository.save(employee);
+        long employeeId = employeeRepository.save(employee).getId() + 1;
+        sqlStatementCounter.reset();
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId));
 
         // then - verify the output
         response.andExpect(status().isNotFound())
                 .andDo(print());
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -144,6 +162,7 @@ public class EmployeeControllerITests {
         employee1.setFirstName("test2");
         employee1.setLastName("x3");
         employeeRepository.save(employee1);
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", employee1.getId())
@@ -157,6 +176,8 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.firstName", CoreMatchers.is(employee1.getFirstName())))
                 .andExpect(jsonPath("$.lastName", CoreMatchers.is(employee1.getLastName())))
                 .andExpect(jsonPath("$.email", CoreMatchers.is(employee1.getEmail())));
+        // the body matches the stored row, so dirty checking skips the UPDATE
+        sqlStatementCounter.assertExecuted(1, 1);
     }
 
     //JUnit test for update employee REST API
@@ -165,8 +186,8 @@ public class EmployeeControllerITests {
     public  void givenUpdatedEmployee_whenUpdateEmployee_thenReturnNegativeScenarioEmployee() throws Exception {
 
         //given  - precondition or setup
-        long id = 1L;
-        employeeRepository.save(employee);
+        long id = employeeRepository.save(employee).getId() + 1;
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(put("/api/employees/{id}", id)
@@ -177,6 +198,7 @@ public class EmployeeControllerITests {
         // then - verify the output
         response.andExpect(status().isNotFound())
                 .andDo(print());
+        sqlStatementCounter.assertExecuted(1, 1);
     }
 
     //JUnit test for deleteEmployee
@@ -186,6 +208,7 @@ public class EmployeeControllerITests {
 
         //given  - precondition or setup
         var employee1 = employeeRepository.save(employee);
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employee1.getId()));
@@ -193,6 +216,70 @@ public class EmployeeControllerITests {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print());
+        // select + tombstone update, the row itself is purged later
+        sqlStatementCounter.assertExecuted(2, 2);
+        assertThat(employeeRepository.findById(employee1.getId())).isEmpty();
+
+    }
+
+    //JUnit test for update employee REST API statement count
+    @DisplayName("JUnit test for update employee REST API (changed row)")
+    @Test
+    public  void givenChangedEmployee_whenUpdateEmployee_thenSelectAndUpdateOnly() throws Exception {
+
+        //given  - precondition or setup
+        Employee employee1 = employeeRepository.save(employee);
+        var changes = Employee.builder()
+                .firstName("test2")
+                .lastName("x3")
+                .email("henry2@test.com")
+                .build();
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employee1.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes))
+        );
 
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", CoreMatchers.is(changes.getEmail())));
+        // select + update: the merge and the service's before-image reuse the request's persistence context
+        sqlStatementCounter.assertExecuted(2, 2);
+    }
+
+    //JUnit test for getEmployeeStats statement count
+    @DisplayName("JUnit test for employee stats served from memory")
+    @Test
+    public  void givenCounters_whenGetEmployeeStats_thenNoSql() throws Exception {
+
+        //given  - precondition or setup
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/stats"));
+
+        // then - verify the output
+        response.andExpect(status().isOk());
+        sqlStatementCounter.assertExecuted(0, 0);
+    }
+
+    //JUnit test for searchEmployees statement count
+    @DisplayName("JUnit test for search employees")
+    @Test
+    public  void givenEmployee_whenSearchEmployees_thenSingleQuery() throws Exception {
+
+        //given  - precondition or setup
+        employeeRepository.save(employee);
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/search").param("q", "HENRY"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", CoreMatchers.is(1)));
+        sqlStatementCounter.assertExecuted(1, 1);
     }
 }
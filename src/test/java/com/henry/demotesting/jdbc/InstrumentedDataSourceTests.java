@@ -0,0 +1,55 @@
+package com.henry.demotesting.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InstrumentedDataSourceTests {
+
+    private HikariDataSource pool;
+
+    @BeforeEach
+    public void setup() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setPassword("");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    //JUnit test for the wrapped pool keeping its type
+    @DisplayName("JUnit test for reporting statements through a data source that stays a HikariDataSource")
+    @Test
+    public void givenHikariPool_whenWrapped_thenStatementsReportedAndPoolClosable() {
+
+        //given  - precondition or setup
+        var executions = new ArrayList<StatementExecution>();
+        StatementListener listener = executions::add;
+        DataSource wrapped = InstrumentedDataSource.wrap(pool, () -> List.of(listener));
+
+        //when - action or the behaviour that we are going test
+        Integer one = new JdbcTemplate(wrapped).queryForObject("select cast(? as int)", Integer.class, 1);
+        ((HikariDataSource) wrapped).close();
+
+        // then - verify the output
+        assertThat(one).isEqualTo(1);
+        assertThat(InstrumentedDataSource.isInstrumented(wrapped)).isTrue();
+        assertThat(InstrumentedDataSource.isInstrumented(pool)).isFalse();
+        assertThat(executions).extracting(StatementExecution::sql).containsExactly("select cast(? as int)");
+        assertThat(executions.get(0).parameters()).containsExactly(1);
+        assertThat(pool.isClosed()).isTrue();
+    }
+}
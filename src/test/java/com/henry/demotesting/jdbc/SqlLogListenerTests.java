@@ -0,0 +1,60 @@
+package com.henry.demotesting.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlLogListenerTests {
+
+    private SqlLogListener sqlLogListener;
+
+    @BeforeEach
+    public void setup() {
+        sqlLogListener = new SqlLogListener(true, 0.0, Duration.ofMillis(100), 16, 500);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        sqlLogListener.shutdown();
+    }
+
+    //JUnit test for aggregating executions per query shape
+    @DisplayName("JUnit test for per-shape aggregation")
+    @Test
+    public void givenExecutions_whenShapeStats_thenGroupedBySqlShape() {
+
+        //given  - precondition or setup
+        var select = "select e1_0.id from employees e1_0 where e1_0.email=?";
+
+        //when - action or the behaviour that we are going test
+        sqlLogListener.afterExecute(new StatementExecution(select, List.of("a@test.com"), 0, 1_000_000, null, true));
+        sqlLogListener.afterExecute(new StatementExecution(select, List.of("b@test.com"), 0, 3_000_000, null, true));
+        sqlLogListener.afterExecute(new StatementExecution("delete from employees where id = 7", List.of(), 0, 500_000, null, false));
+        sqlLogListener.afterExecute(new StatementExecution("delete from employees  where id = 8", List.of(), 0, 500_000, null, false));
+
+        // then - verify the output
+        var stats = sqlLogListener.shapeStats();
+        assertThat(stats).hasSize(2);
+        assertThat(stats.get(0).sql()).isEqualTo(select);
+        assertThat(stats.get(0).executions()).isEqualTo(2);
+        assertThat(stats.get(0).averageMillis()).isEqualTo(2.0);
+        assertThat(stats.get(0).maxMillis()).isEqualTo(3.0);
+        assertThat(stats.get(1).sql()).isEqualTo("delete from employees where id = ?");
+        assertThat(stats.get(1).executions()).isEqualTo(2);
+    }
+
+    //JUnit test for normalizing inline literals
+    @DisplayName("JUnit test for shape of statements with literals")
+    @Test
+    public void givenInlineLiterals_whenShapeOf_thenLiteralsReplaced() {
+        var execution = new StatementExecution("select * from employees where email = 'it''s@x.com' and id > 10",
+                List.of(), 0, 0, null, false);
+        assertThat(SqlLogListener.shapeOf(execution)).isEqualTo("select * from employees where email = ? and id > ?");
+    }
+}
@@ -0,0 +1,116 @@
+package com.henry.demotesting.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmployeeJsonConverterTests {
+
+    private static final Type EMPLOYEE_LIST = ResolvableType.forClassWithGenerics(List.class, Employee.class).getType();
+
+    private ObjectMapper objectMapper;
+    private EmployeeJsonConverter converter;
+
+    @BeforeEach
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        converter = new EmployeeJsonConverter(objectMapper);
+    }
+
+    //JUnit test for byte compatibility with the ObjectMapper output
+    @DisplayName("JUnit test for writing an employee list byte-for-byte like ObjectMapper")
+    @Test
+    public void givenEmployees_whenWrite_thenSameBytesAsObjectMapper() throws Exception {
+
+        //given  - precondition or setup
+        var employees = List.of(
+                Employee.builder().id(1L).firstName("Henry").lastName("x").email("test@gmail.com").build(),
+                Employee.builder().id(Long.MAX_VALUE).firstName("Zoë \"Z\"").lastName("Ünal\t\\\u0001").email("😀@example.com").build(),
+                Employee.builder().firstName(null).lastName("").email(null).build());
+        var output = new MockHttpOutputMessage();
+
+        //when - action or the behaviour that we are going test
+        converter.write(employees, EMPLOYEE_LIST, MediaType.APPLICATION_JSON, output);
+
+        // then - verify the output
+        assertThat(output.getBodyAsBytes()).isEqualTo(objectMapper.writeValueAsBytes(employees));
+        assertThat(output.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    //JUnit test for byte compatibility of a single employee
+    @DisplayName("JUnit test for writing a single employee byte-for-byte like ObjectMapper")
+    @Test
+    public void givenEmployee_whenWrite_thenSameBytesAsObjectMapper() throws Exception {
+
+        //given  - precondition or setup
+        var employee = Employee.builder().firstName("Henry").lastName("x").email("test@gmail.com").build();
+        var output = new MockHttpOutputMessage();
+
+        //when - action or the behaviour that we are going test
+        converter.write(employee, Employee.class, MediaType.APPLICATION_JSON, output);
+
+        // then - verify the output
+        assertThat(output.getBodyAsBytes()).isEqualTo(objectMapper.writeValueAsBytes(employee));
+    }
+
+    //JUnit test for reading request bodies with the streaming parser
+    @DisplayName("JUnit test for reading employees leniently like ObjectMapper")
+    @Test
+    public void givenJsonBodies_whenRead_thenSameEmployeesAsObjectMapper() throws Exception {
+
+        //given  - precondition or setup
+        var single = "{\"id\":\"7\",\"unknown\":{\"nested\":[1,2]},\"firstName\":\"Ana\",\"lastName\":null,\"email\":\"ana@test.com\"}";
+        var list = "[{\"firstName\":\"Henry\",\"email\":\"test@gmail.com\"},{\"id\":3,\"lastName\":\"Young\"}]";
+
+        //when - action or the behaviour that we are going test
+        var employee = converter.read(Employee.class, null, input(single));
+        var employees = converter.read(EMPLOYEE_LIST, null, input(list));
+
+        // then - verify the output
+        assertThat(employee).isEqualTo(objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(single, Employee.class));
+        assertThat(employees).isEqualTo(objectMapper.readerForListOf(Employee.class).readValue(list));
+    }
+
+    //JUnit test for malformed input
+    @DisplayName("JUnit test for rejecting a malformed body")
+    @Test
+    public void givenMalformedJson_whenRead_thenNotReadable() {
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(Employee.class, null, input("{\"firstName\":[\"Henry\"]}")));
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(Employee.class, null, input("{\"id\":\"seven\"}")));
+    }
+
+    //JUnit test for leaving other types to the default converter
+    @DisplayName("JUnit test for only claiming employee types")
+    @Test
+    public void givenOtherTypes_whenCanWrite_thenDeclined() {
+        assertThat(converter.canWrite(EMPLOYEE_LIST, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Employee.class, Employee.class, MediaType.APPLICATION_XML)).isFalse();
+        assertThat(converter.canWrite(List.class, List.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(String.class, String.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private static MockHttpInputMessage input(String json) {
+        var message = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+        message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return message;
+    }
+}
@@ -0,0 +1,137 @@
+package com.henry.demotesting.pool;
+
+import com.henry.demotesting.model.PoolResizeDecision;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PoolMonitorTests {
+
+    private HikariConfig config;
+    private PoolMonitor poolMonitor;
+    private IMetricsTracker tracker;
+    private int active;
+
+    @BeforeEach
+    public void setup() {
+        config = new HikariConfig();
+        config.setPoolName("test-pool");
+        config.setMaximumPoolSize(10);
+        config.setMinimumIdle(5);
+        poolMonitor = new PoolMonitor(true, 4, 14, Duration.ofMillis(10), Duration.ofMillis(1));
+        poolMonitor.attach(config);
+        tracker = poolMonitor.create("test-pool", new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = active;
+                totalConnections = active;
+            }
+        });
+    }
+
+    private void borrow(int count, long waitMillis, long usageMillis) {
+        for (int i = 0; i < count; i++) {
+            tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(waitMillis));
+            tracker.recordConnectionUsageMillis(usageMillis);
+        }
+    }
+
+    //JUnit test for growing the pool when callers wait for connections
+    @DisplayName("JUnit test for growing the pool on acquire waits")
+    @Test
+    public void givenLongAcquireWaits_whenAdjust_thenPoolGrows() {
+
+        //given  - precondition or setup
+        active = 10;
+        borrow(100, 25, 5);
+
+        //when - action or the behaviour that we are going test
+        poolMonitor.adjust();
+
+        // then - verify the output
+        assertThat(config.getMaximumPoolSize()).isEqualTo(12);
+        var status = poolMonitor.status().orElseThrow();
+        assertThat(status.lastWindow().acquisitions()).isEqualTo(100);
+        assertThat(status.lastWindow().averageWaitMillis()).isEqualTo(25.0);
+        assertThat(status.lastWindow().peakActive()).isEqualTo(10);
+        assertThat(status.decisions()).extracting(PoolResizeDecision::to).containsExactly(12);
+    }
+
+    //JUnit test for holding the size when the database itself is slowing down
+    @DisplayName("JUnit test for not growing into a saturated database")
+    @Test
+    public void givenWaitsWithRisingUsageTime_whenAdjust_thenPoolHeld() {
+
+        //given  - precondition or setup
+        active = 9;
+        borrow(100, 0, 4);
+        poolMonitor.adjust();
+        active = 10;
+        borrow(100, 25, 20);
+
+        //when - action or the behaviour that we are going test
+        poolMonitor.adjust();
+
+        // then - verify the output
+        assertThat(config.getMaximumPoolSize()).isEqualTo(10);
+        var decision = poolMonitor.status().orElseThrow().decisions().get(0);
+        assertThat(decision.from()).isEqualTo(decision.to());
+        assertThat(decision.reason()).contains("usage rose");
+    }
+
+    //JUnit test for a lasting rise in usage time becoming the new baseline
+    @DisplayName("JUnit test for growing again once slower queries are the norm")
+    @Test
+    public void givenLastingUsageRise_whenAdjustRepeatedly_thenHoldsRecordedOnceThenGrows() {
+
+        //given  - precondition or setup
+        active = 9;
+        borrow(100, 0, 4);
+        poolMonitor.adjust();
+        active = 10;
+
+        //when - action or the behaviour that we are going test
+        for (int i = 0; i < PoolMonitor.MAX_CONSECUTIVE_HOLDS; i++) {
+            borrow(100, 25, 20);
+            poolMonitor.adjust();
+        }
+        int heldSize = config.getMaximumPoolSize();
+        borrow(100, 25, 20);
+        poolMonitor.adjust();
+        borrow(100, 25, 20);
+        poolMonitor.adjust();
+
+        // then - verify the output
+        assertThat(heldSize).isEqualTo(10);
+        assertThat(config.getMaximumPoolSize()).isEqualTo(14);
+        assertThat(poolMonitor.status().orElseThrow().decisions())
+                .extracting(PoolResizeDecision::to).containsExactly(14, 12, 10);
+    }
+
+    //JUnit test for shrinking an idle pool down to its lower bound
+    @DisplayName("JUnit test for shrinking the pool when idle")
+    @Test
+    public void givenIdlePool_whenAdjustRepeatedly_thenShrinksToLowerBound() {
+
+        //given  - precondition or setup
+        active = 1;
+
+        //when - action or the behaviour that we are going test
+        for (int i = 0; i < 10; i++) {
+            borrow(10, 0, 1);
+            poolMonitor.adjust();
+        }
+
+        // then - verify the output
+        assertThat(config.getMaximumPoolSize()).isEqualTo(4);
+        assertThat(config.getMinimumIdle()).isEqualTo(4);
+    }
+}
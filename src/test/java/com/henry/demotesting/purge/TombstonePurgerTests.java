@@ -0,0 +1,72 @@
+package com.henry.demotesting.purge;
+
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class TombstonePurgerTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TombstonePurger tombstonePurger;
+
+    @BeforeEach
+    public void setup() {
+        tombstonePurger = new TombstonePurger(jdbcTemplate, true, 2, Duration.ofMinutes(1), Duration.ZERO);
+    }
+
+    //JUnit test for purging old tombstones in bounded batches
+    @DisplayName("JUnit test for batched purge of soft-deleted employees")
+    @Test
+    public void givenOldTombstones_whenPurge_thenDeletedInBatches() {
+
+        //given  - precondition or setup
+        var longAgo = Instant.now().minus(Duration.ofMinutes(10));
+        for (int i = 0; i < 5; i++) {
+            var employee = employeeRepository.save(Employee.builder()
+                    .firstName("Henry")
+                    .lastName("x")
+                    .email("henry" + i + "@gmail.com")
+                    .build());
+            // the last tombstone is too recent to purge, the live row stays
+            if (i < 3) {
+                employeeRepository.softDeleteById(employee.getId(), longAgo);
+            } else if (i == 3) {
+                employeeRepository.softDeleteById(employee.getId(), Instant.now());
+            }
+        }
+        assertThat(tombstonePurger.stats().purgeLagMillis()).isGreaterThanOrEqualTo(Duration.ofMinutes(8).toMillis());
+
+        //when - action or the behaviour that we are going test
+        var cutoff = Instant.now().minus(Duration.ofMinutes(1));
+        int first = tombstonePurger.purge(cutoff);
+        int second = tombstonePurger.purge(cutoff);
+        int third = tombstonePurger.purge(cutoff);
+
+        // then - verify the output
+        assertThat(first).isEqualTo(2);
+        assertThat(second).isEqualTo(1);
+        assertThat(third).isZero();
+        var stats = tombstonePurger.stats();
+        assertThat(stats.pendingTombstones()).isEqualTo(1);
+        assertThat(stats.purgedTotal()).isEqualTo(3);
+        assertThat(stats.purgeLagMillis()).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Long.class)).isEqualTo(2);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+    }
+}
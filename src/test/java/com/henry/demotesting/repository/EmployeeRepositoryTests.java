@@ -2,22 +2,30 @@ package com.henry.demotesting.repository;
 
 
 import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.sql.SqlStatementCounter;
+import com.henry.demotesting.sql.SqlStatementCounterConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 
 @DataJpaTest
+@Import(SqlStatementCounterConfig.class)
 public class EmployeeRepositoryTests {
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private SqlStatementCounter sqlStatementCounter;
+
     //JUnit test for save employee operation
     @DisplayName("JUnit test for save employee operation")
     @Test
@@ -29,6 +37,7 @@ public class EmployeeRepositoryTests {
                 .lastName("x")
                 .email("test@gmail.com")
                 .build();
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         var savedEmployee = employeeRepository.save(employee);
@@ -36,6 +45,8 @@ public class EmployeeRepositoryTests {
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
         assertThat(savedEmployee.getId()).isGreaterThan(0);
+        // identity ids force the insert immediately
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -59,6 +70,7 @@ public class EmployeeRepositoryTests {
 
          employeeRepository.save(employee);
          employeeRepository.save(employee1);
+         sqlStatementCounter.reset();
 
          //when - action or the behaviour that we are going test
          var employeeList = employeeRepository.findAll();
@@ -66,6 +78,7 @@ public class EmployeeRepositoryTests {
          // then - verify the output
          assertThat(employeeList).isNotNull();
          assertThat(employeeList.size()).isEqualTo(2);
+         sqlStatementCounter.assertExecuted(1, 1);
 
      }
 
@@ -82,12 +95,15 @@ public class EmployeeRepositoryTests {
                  .build();
 
          employeeRepository.save(employee);
+         sqlStatementCounter.reset();
 
          //when - action or the behaviour that we are going test
           var employeeDB = employeeRepository.findById(employee.getId()).get();
 
          // then - verify the output
          assertThat(employeeDB).isNotNull();
+         // served from the persistence context
+         sqlStatementCounter.assertExecuted(0, 0);
      }
 
      //JUnit test for get employee email operation
@@ -102,12 +118,14 @@ public class EmployeeRepositoryTests {
                 .email("test@gmail.com")
                 .build();
         employeeRepository.save(employee);
+        sqlStatementCounter.reset();
 
          //when - action or the behaviour that we are going test
         var employeeDB = employeeRepository.findByEmail(employee.getEmail()).get();
 
          // then - verify the output
         assertThat(employeeDB).isNotNull();
+        sqlStatementCounter.assertExecuted(1, 1);
      }
 
     //JUnit test for update employee operation
@@ -171,12 +189,14 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
         var firstName = "Henry";
         var lastName = "x";
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         Employee savedEmployee = employeeRepository.findByJPQL(firstName, lastName);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        sqlStatementCounter.assertExecuted(1, 1);
     }
 
     //JUnit test for custom query using JPQL with nameParams
@@ -193,12 +213,14 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
         var firstName = "Henry";
         var lastName = "x";
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         Employee savedEmployee = employeeRepository.findByJPQLNameParams(firstName, lastName);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -216,12 +238,14 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
         var firstName = "Henry";
         var lastName = "x";
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         Employee savedEmployee = employeeRepository.findByNativeSQL(firstName, lastName);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        sqlStatementCounter.assertExecuted(1, 1);
 
     }
 
@@ -239,12 +263,125 @@ public class EmployeeRepositoryTests {
         employeeRepository.save(employee);
         var firstName = "Henry";
         var lastName = "x";
+        sqlStatementCounter.reset();
 
         //when - action or the behaviour that we are going test
         Employee savedEmployee = employeeRepository.findByNativeSQLWithNameParams(firstName, lastName);
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        sqlStatementCounter.assertExecuted(1, 1);
+
+    }
+
+    //JUnit test for statements issued by an update at flush time
+    @DisplayName("JUnit test for update employee statement count")
+    @Test
+    public  void givenManagedEmployee_whenUpdateAndFlush_thenSingleUpdate(){
+
+        //given  - precondition or setup
+        var employee = employeeRepository.save(Employee.builder()
+                .firstName("Henry")
+                .lastName("x")
+                .email("test@gmail.com")
+                .build());
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        var savedEmployee = employeeRepository.findById(employee.getId()).get();
+        savedEmployee.setEmail("henry@gmail.com");
+        employeeRepository.save(savedEmployee);
+        employeeRepository.flush();
+
+        // then - verify the output
+        sqlStatementCounter.assertExecuted(1, 1);
+    }
+
+    //JUnit test for the grouped counter queries
+    @DisplayName("JUnit test for employee counts grouped by email domain")
+    @Test
+    public  void givenEmployees_whenCountByEmailDomain_thenSingleGroupedQuery(){
+
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("x").email("a@Gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("y").email("b@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("z").email("c@test.com").build());
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        var counts = employeeRepository.countByEmailDomain();
+
+        // then - verify the output
+        assertThat(counts).hasSize(2);
+        sqlStatementCounter.assertExecuted(1, 1);
+    }
+
+    //JUnit test for soft delete hiding the row from every query
+    @DisplayName("JUnit test for soft delete")
+    @Test
+    public  void givenEmployee_whenSoftDelete_thenHiddenFromQueries(){
 
+        //given  - precondition or setup
+        var employee = employeeRepository.save(Employee.builder()
+                .firstName("Henry")
+                .lastName("x")
+                .email("test@gmail.com")
+                .build());
+        sqlStatementCounter.reset();
+
+        //when - action or the behaviour that we are going test
+        int updated = employeeRepository.softDeleteById(employee.getId(), Instant.now());
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        sqlStatementCounter.assertExecuted(1, 1);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        assertThat(employeeRepository.findByEmail("test@gmail.com")).isEmpty();
+        assertThat(employeeRepository.findByNativeSQL("Henry", "x")).isNull();
+        assertThat(employeeRepository.count()).isZero();
+        assertThat(employeeRepository.softDeleteById(employee.getId(), Instant.now())).isZero();
+    }
+
+    //JUnit test for case-insensitive email lookup through the normalized column
+    @DisplayName("JUnit test for case-insensitive findByEmail")
+    @Test
+    public void givenMixedCaseEmail_whenFindByEmail_thenMatchedIgnoringCase(){
+
+        //given  - precondition or setup
+        var employee = employeeRepository.save(Employee.builder()
+                .firstName("Henry")
+                .lastName("x")
+                .email(" Henry.X@Gmail.com")
+                .build());
+
+        //when - action or the behaviour that we are going test
+        var found = employeeRepository.findByEmail("henry.x@GMAIL.com ");
+        employee.setEmail("henry@gmail.com");
+        employeeRepository.save(employee);
+
+        // then - verify the output
+        assertThat(found).isPresent();
+        assertThat(found.get().getEmailNormalized()).isEqualTo("henry.x@gmail.com");
+        assertThat(employeeRepository.findByEmail("Henry.X@gmail.com")).isEmpty();
+        assertThat(employeeRepository.findByEmail("HENRY@gmail.com")).isPresent();
+    }
+
+    //JUnit test for search with LIKE wildcard characters in the query
+    @DisplayName("JUnit test for search matching % and _ literally")
+    @Test
+    public void givenWildcardCharacters_whenSearch_thenMatchedLiterally(){
+
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("x").email("henry_x@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("y").email("henryzx@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("100%").lastName("z").email("z@gmail.com").build());
+
+        //when - action or the behaviour that we are going test
+        var underscore = employeeRepository.search("Y_X");
+        var percent = employeeRepository.search("%");
+
+        // then - verify the output
+        assertThat(underscore).extracting(Employee::getEmail).containsExactly("henry_x@gmail.com");
+        assertThat(percent).extracting(Employee::getFirstName).containsExactly("100%");
     }
 }
@@ -0,0 +1,241 @@
+package com.henry.demotesting.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.model.BulkResult;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.repository.EmployeeRepository;
+import com.henry.demotesting.service.impl.EmployeeBulkServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Each chunk commits or rolls back in its own transaction, so the tests run outside one.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeBulkServiceTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Object> events = new ArrayList<>();
+
+    private EmployeeBulkService employeeBulkService;
+
+    @BeforeEach
+    public void setup() {
+        employeeBulkService = new EmployeeBulkServiceImpl(objectMapper, jdbcTemplate, transactionManager, events::add, 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("alter table employees drop constraint if exists ck_employees_no_boom");
+        jdbcTemplate.update("delete from employees");
+    }
+
+    private Employee save(String email) {
+        return employeeRepository.save(Employee.builder()
+                .firstName("Henry")
+                .lastName("x")
+                .email(email)
+                .build());
+    }
+
+    private static String create(String email) {
+        return "{\"op\":\"create\",\"employee\":{\"firstName\":\"Henry\",\"lastName\":\"x\",\"email\":\"" + email + "\"}}";
+    }
+
+    private static String update(long id, String lastName, String email) {
+        return "{\"op\":\"update\",\"id\":" + id + ",\"employee\":{\"firstName\":\"Henry\",\"lastName\":\""
+                + lastName + "\",\"email\":\"" + email + "\"}}";
+    }
+
+    private static String delete(long id) {
+        return "{\"op\":\"delete\",\"id\":" + id + "}";
+    }
+
+    private long countLive(String email) {
+        return jdbcTemplate.queryForObject("select count(*) from employees where email_normalized = ? and deleted_at is null",
+                Long.class, email);
+    }
+
+    private List<BulkResult> execute(String ndjson) throws IOException {
+        return execute(employeeBulkService, ndjson);
+    }
+
+    private List<BulkResult> execute(EmployeeBulkService service, String ndjson) throws IOException {
+        var out = new ByteArrayOutputStream();
+        service.execute(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out);
+        var results = new ArrayList<BulkResult>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BulkResult.class));
+        }
+        return results;
+    }
+
+    //JUnit test for a mixed bulk request
+    @DisplayName("JUnit test for mixed create, update and delete operations in one bulk request")
+    @Test
+    public void givenMixedOperations_whenExecute_thenResultPerOperationInOrder() throws IOException {
+
+        //given  - precondition or setup
+        var first = save("first@gmail.com");
+        var second = save("second@gmail.com");
+        String ndjson = String.join("\n",
+                "{\"op\":\"create\",\"employee\":{\"firstName\":\"Tony\",\"lastName\":\"Stark\",\"email\":\"tony@gmail.com\"}}",
+                "{\"op\":\"create\",\"employee\":{\"firstName\":\"Henry\",\"lastName\":\"x\",\"email\":\"First@Gmail.com\"}}",
+                "{\"op\":\"update\",\"id\":" + first.getId() + ",\"employee\":{\"firstName\":\"Henry\",\"lastName\":\"x\",\"email\":\"first@yahoo.com\"}}",
+                "{\"op\":\"delete\",\"id\":" + second.getId() + "}",
+                "{\"op\":\"update\",\"id\":999999,\"employee\":{\"firstName\":\"Nobody\",\"lastName\":\"x\",\"email\":\"nobody@gmail.com\"}}",
+                "not json",
+                "{\"op\":\"update\",\"id\":" + first.getId() + ",\"employee\":{\"firstName\":\"Henry\",\"lastName\":\"Xiloj\",\"email\":\"first@yahoo.com\"}}",
+                "{\"op\":\"delete\",\"id\":" + second.getId() + "}") + "\n";
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::index).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(results).extracting(BulkResult::status).containsExactly(201, 409, 200, 200, 404, 400, 200, 404);
+        assertThat(results.get(0).id()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select last_name from employees where id = ?", String.class,
+                first.getId())).isEqualTo("Xiloj");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees where id = ? and deleted_at is null",
+                Integer.class, second.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("select email_normalized from employees where id = ?", String.class,
+                results.get(0).id())).isEqualTo("tony@gmail.com");
+        assertThat(events).hasSize(4).allMatch(EmployeeChangedEvent.class::isInstance);
+    }
+
+    //JUnit test for a create after the delete that frees its email
+    @DisplayName("JUnit test for creating an employee with the email of one deleted earlier in the request")
+    @Test
+    public void givenDeleteThenCreateWithSameEmail_whenExecute_thenCreated() throws IOException {
+
+        //given  - precondition or setup
+        var employee = save("henry@gmail.com");
+        String ndjson = String.join("\n", delete(employee.getId()), create("Henry@Gmail.com")) + "\n";
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::status).containsExactly(200, 201);
+        assertThat(countLive("henry@gmail.com")).isEqualTo(1);
+    }
+
+    //JUnit test for a create after an update that takes its email
+    @DisplayName("JUnit test for creating an employee with the email another one was moved to earlier in the request")
+    @Test
+    public void givenUpdateToEmailThenCreateWithIt_whenExecute_thenConflict() throws IOException {
+
+        //given  - precondition or setup
+        var employee = save("henry@gmail.com");
+        String ndjson = String.join("\n",
+                update(employee.getId(), "x", "x@gmail.com"),
+                create("x@gmail.com")) + "\n";
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::status).containsExactly(200, 409);
+        assertThat(countLive("x@gmail.com")).isEqualTo(1);
+    }
+
+    //JUnit test for a create after an update that frees its email
+    @DisplayName("JUnit test for creating an employee with the email another one was moved away from earlier in the request")
+    @Test
+    public void givenUpdateAwayFromEmailThenCreateWithIt_whenExecute_thenCreated() throws IOException {
+
+        //given  - precondition or setup
+        var employee = save("henry@gmail.com");
+        String ndjson = String.join("\n",
+                update(employee.getId(), "x", "henry@yahoo.com"),
+                create("henry@gmail.com")) + "\n";
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::status).containsExactly(200, 201);
+        assertThat(countLive("henry@gmail.com")).isEqualTo(1);
+        assertThat(countLive("henry@yahoo.com")).isEqualTo(1);
+    }
+
+    //JUnit test for a chunk that fails
+    @DisplayName("JUnit test for a failing chunk being rolled back while later chunks still run")
+    @Test
+    public void givenFailingChunk_whenExecute_thenChunkRolledBackAndReported() throws IOException {
+
+        //given  - precondition or setup
+        var employee = save("henry@gmail.com");
+        jdbcTemplate.update("alter table employees add constraint ck_employees_no_boom check (last_name <> 'Boom')");
+        var service = new EmployeeBulkServiceImpl(objectMapper, jdbcTemplate, transactionManager, events::add, 2);
+        String ndjson = String.join("\n",
+                create("tony@gmail.com"),
+                update(employee.getId(), "Boom", "henry@gmail.com"),
+                create("bruce@gmail.com")) + "\n";
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(service, ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::status).containsExactly(500, 500, 201);
+        assertThat(results.get(0).error()).startsWith("Rolled back: ");
+        assertThat(countLive("tony@gmail.com")).isZero();
+        assertThat(countLive("bruce@gmail.com")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select last_name from employees where id = ?", String.class,
+                employee.getId())).isEqualTo("x");
+        assertThat(events).hasSize(1);
+    }
+
+    //JUnit test for requests spanning several chunks
+    @DisplayName("JUnit test for results and duplicate checks across chunk boundaries")
+    @Test
+    public void givenOperationsSpanningChunks_whenExecute_thenEveryResultInOrder() throws IOException {
+
+        //given  - precondition or setup
+        var service = new EmployeeBulkServiceImpl(objectMapper, jdbcTemplate, transactionManager, events::add, 2);
+        String ndjson = String.join("\n",
+                create("first@gmail.com"),
+                create("second@gmail.com"),
+                "",
+                create("First@gmail.com"),
+                "not json",
+                create("third@gmail.com"));
+
+        //when - action or the behaviour that we are going test
+        List<BulkResult> results = execute(service, ndjson);
+
+        // then - verify the output
+        assertThat(results).extracting(BulkResult::index).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(results).extracting(BulkResult::status).containsExactly(201, 201, 409, 400, 201);
+        assertThat(countLive("first@gmail.com")).isEqualTo(1);
+        assertThat(events).hasSize(3);
+    }
+}
@@ -0,0 +1,115 @@
+package com.henry.demotesting.service;
+
+import com.henry.demotesting.event.EmployeesImportedEvent;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.ImportReport;
+import com.henry.demotesting.repository.EmployeeRepository;
+import com.henry.demotesting.service.impl.EmployeeImportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The import writes from its own thread and commits per chunk, so the test can't roll it back.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeImportServiceTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Object> events = new ArrayList<>();
+
+    private EmployeeImportServiceImpl employeeImportService;
+
+    @BeforeEach
+    public void setup() {
+        employeeImportService = new EmployeeImportServiceImpl(employeeRepository, jdbcTemplate, transactionManager,
+                events::add, 2, 2, 2, 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeImportService.shutdown();
+        jdbcTemplate.update("delete from employees");
+    }
+
+    private ImportReport importCsv(String csv) {
+        return employeeImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    //JUnit test for importing a CSV spread over several chunks
+    @DisplayName("JUnit test for CSV import with invalid and duplicate rows")
+    @Test
+    public void givenCsvWithBadRows_whenImportCsv_thenValidRowsInsertedAndErrorsReported() {
+
+        //given  - precondition or setup
+        employeeRepository.save(Employee.builder().firstName("Henry").lastName("x").email("taken@gmail.com").build());
+        String csv = """
+                email,first_name,last_name
+                tony@gmail.com,Tony,Stark
+                Tony@Gmail.com ,Tony,Again
+                TAKEN@gmail.com,Henry,y
+                not-an-email,Henry,z
+                bruce@gmail.com,Bruce
+                bruce@gmail.com,Bruce,Banner
+                natasha@gmail.com,,Romanoff
+                """;
+
+        //when - action or the behaviour that we are going test
+        ImportReport report = importCsv(csv);
+
+        // then - verify the output
+        assertThat(report.rowsRead()).isEqualTo(7);
+        assertThat(report.rowsImported()).isEqualTo(2);
+        assertThat(report.rowsRejected()).isEqualTo(5);
+        assertThat(report.errorsTruncated()).isFalse();
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(3L, 4L, 5L, 6L, 8L);
+        assertThat(report.errors().get(0).message()).contains("already exist");
+        assertThat(report.errors().get(1).message()).contains("already exist");
+        assertThat(report.errors().get(2).message()).contains("Invalid email");
+        assertThat(report.errors().get(3).message()).contains("Expected 3 columns");
+        assertThat(report.errors().get(4).message()).contains("required");
+        assertThat(jdbcTemplate.queryForList(
+                "select email_normalized from employees where last_name in ('Stark', 'Banner') and updated_at is not null "
+                        + "order by email_normalized", String.class))
+                .containsExactly("bruce@gmail.com", "tony@gmail.com");
+        assertThat(employeeRepository.findByEmail("tony@gmail.com")).get()
+                .extracting(Employee::getFirstName).isEqualTo("Tony");
+        assertThat(events).singleElement().isEqualTo(new EmployeesImportedEvent(2));
+    }
+
+    //JUnit test for a header without the required columns
+    @DisplayName("JUnit test for CSV import rejecting an incomplete header")
+    @Test
+    public void givenHeaderWithoutNames_whenImportCsv_thenNothingImported() {
+
+        //when - action or the behaviour that we are going test
+        ImportReport report = importCsv("email,phone\ntony@gmail.com,555\n");
+
+        // then - verify the output
+        assertThat(report.rowsImported()).isZero();
+        assertThat(report.errors()).extracting(ImportReport.RowError::line).containsExactly(1L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Integer.class)).isZero();
+        assertThat(events).isEmpty();
+    }
+}
@@ -1,10 +1,14 @@
 package com.henry.demotesting.service;
 
 
+import com.henry.demotesting.event.EmployeeChangedEvent;
 import com.henry.demotesting.exception.ResourceNotFoundException;
 import com.henry.demotesting.model.Employee;
 import com.henry.demotesting.repository.EmployeeRepository;
 import com.henry.demotesting.service.impl.EmployeeServiceImpl;
+import com.henry.demotesting.snapshot.EmployeeSnapshot;
+import com.henry.demotesting.stats.EmployeeCounters;
+import com.henry.demotesting.sync.ChangeFeed;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,14 +17,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static  org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +36,14 @@ public class EmployeeServiceTests {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EmployeeCounters employeeCounters;
+    @Mock
+    private EmployeeSnapshot employeeSnapshot;
+    @Mock
+    private ChangeFeed changeFeed;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -65,6 +79,7 @@ public class EmployeeServiceTests {
 
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(eventPublisher, times(1)).publishEvent(EmployeeChangedEvent.created(employee));
     }
 
     //JUnit test for savedEmployee method which throws exception
@@ -145,6 +160,21 @@ public class EmployeeServiceTests {
         assertThat(employeeObject).isNotEmpty();
     }
 
+    //JUnit test for getEmployeeById method served from the in-memory snapshot
+    @DisplayName("JUnit test for getEmployeeById method (snapshot serving mode)")
+    @Test
+    public  void givenServingSnapshot_whenGetEmployeeId_thenRepositoryNotCalled(){
+
+        //given  - precondition or setup
+        given(employeeSnapshot.isServing()).willReturn(true);
+        given(employeeSnapshot.findById(employee.getId())).willReturn(Optional.of(employee));
+        //when - action or the behaviour that we are going test
+        var employeeObject = employeeService.findById(employee.getId());
+        // then - verify the output
+        assertThat(employeeObject).contains(employee);
+        verify(employeeRepository, never()).findById(any());
+    }
+
     //JUnit test for updateEmployee method
     @DisplayName("JUnit test for updateEmployee method")
     @Test
@@ -170,12 +200,15 @@ public class EmployeeServiceTests {
     public  void givenEmployeeObject_whenDeleteEmployee_thenReturnDeleteObject(){
         long employeeId = 1L;
         //given  - precondition or setup
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.findById(employeeId)).willReturn(Optional.of(employee));
+        given(employeeRepository.softDeleteById(eq(employeeId), any(Instant.class))).willReturn(1);
 
         //when - action or the behaviour that we are going test
         employeeService.deleteEmployee(employeeId);
 
         // then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        verify(employeeRepository, times(1)).softDeleteById(eq(employeeId), any(Instant.class));
+        verify(employeeRepository, never()).deleteById(employeeId);
+        verify(eventPublisher, times(1)).publishEvent(any(EmployeeChangedEvent.class));
     }
 }
@@ -0,0 +1,99 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeColumnsTests {
+
+    private EmployeeColumns columns;
+
+    @BeforeEach
+    public void setup() {
+        columns = new EmployeeColumns(4);
+        for (long id = 1; id <= 100; id++) {
+            columns.upsert(Employee.builder()
+                    .id(id)
+                    .firstName("Henry")
+                    .lastName("x" + (id % 3))
+                    .email("henry" + id + "@gmail.com")
+                    .build());
+        }
+    }
+
+    //JUnit test for id lookup after growth and deletes
+    @DisplayName("JUnit test for findById against the primitive index")
+    @Test
+    public void givenRowsAndDeletes_whenGet_thenIndexStaysConsistent() {
+
+        //when - action or the behaviour that we are going test
+        for (long id = 1; id <= 100; id += 2) {
+            columns.apply(EmployeeChangedEvent.deleted(Employee.builder().id(id).build()));
+        }
+
+        // then - verify the output
+        assertThat(columns.size()).isEqualTo(50);
+        assertThat(columns.get(1)).isNull();
+        assertThat(columns.get(42).getEmail()).isEqualTo("henry42@gmail.com");
+        assertThat(columns.list()).hasSize(50).allMatch(employee -> employee.getId() % 2 == 0);
+    }
+
+    //JUnit test for the id reserved as the empty-slot marker
+    @DisplayName("JUnit test for looking up and deleting id 0")
+    @Test
+    public void givenIdZero_whenGetOrDelete_thenNothingFoundOrRemoved() {
+
+        //when - action or the behaviour that we are going test
+        columns.apply(EmployeeChangedEvent.deleted(Employee.builder().id(0L).build()));
+        columns.apply(EmployeeChangedEvent.deleted(Employee.builder().id(7L).build()));
+
+        // then - verify the output
+        assertThat(columns.get(0)).isNull();
+        assertThat(columns.get(7)).isNull();
+        assertThat(columns.size()).isEqualTo(99);
+        assertThat(columns.get(8).getEmail()).isEqualTo("henry8@gmail.com");
+    }
+
+    //JUnit test for updates in place
+    @DisplayName("JUnit test for applying an update event")
+    @Test
+    public void givenUpdateEvent_whenApply_thenRowReplacedInPlace() {
+
+        //given  - precondition or setup
+        var before = columns.get(7);
+        var after = before.toBuilder().firstName("Ana").email("ana@test.com").build();
+
+        //when - action or the behaviour that we are going test
+        columns.apply(EmployeeChangedEvent.updated(before, after));
+
+        // then - verify the output
+        assertThat(columns.size()).isEqualTo(100);
+        assertThat(columns.get(7)).isEqualTo(after);
+    }
+
+    //JUnit test for case-insensitive search
+    @DisplayName("JUnit test for search over pooled strings")
+    @Test
+    public void givenQuery_whenSearch_thenMatchesAnyColumnIgnoringCase() {
+        assertThat(columns.search("HENRY99@")).extracting(Employee::getId).containsExactly(99L);
+        assertThat(columns.search("x2")).hasSize(33);
+    }
+
+    //JUnit test for string deduplication in the footprint report
+    @DisplayName("JUnit test for snapshot footprint")
+    @Test
+    public void givenRepeatedNames_whenFootprint_thenStringsDeduplicated() {
+
+        //when - action or the behaviour that we are going test
+        var footprint = columns.footprint();
+
+        // then - verify the output
+        assertThat(footprint.employees()).isEqualTo(100);
+        assertThat(footprint.distinctStrings()).isEqualTo(1 + 3 + 100);
+        assertThat(footprint.columnarBytesPerEmployee()).isLessThan(footprint.entityBytesPerEmployee());
+    }
+}
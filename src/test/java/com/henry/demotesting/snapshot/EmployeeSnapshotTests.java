@@ -0,0 +1,65 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The range scans run on their own threads, so the rows have to be committed.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeSnapshotTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @TempDir
+    private Path dir;
+
+    @AfterEach
+    public void tearDown() {
+        employeeRepository.deleteAllInBatch();
+    }
+
+    private EmployeeSnapshot snapshot() {
+        return new EmployeeSnapshot(employeeRepository, true, 100, 2, dir.resolve("employees.bin").toString());
+    }
+
+    //JUnit test for restarting from the snapshot file
+    @DisplayName("JUnit test for the snapshot file being used until a row is updated")
+    @Test
+    public void givenSavedSnapshot_whenRowUpdatedBeforeRestart_thenFileDiscarded() throws InterruptedException {
+
+        //given  - precondition or setup
+        var employee = employeeRepository.save(Employee.builder().firstName("Henry").lastName("x").email("henry@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+        var first = snapshot();
+        first.warmUp();
+        first.save();
+
+        //when - action or the behaviour that we are going test
+        var unchanged = snapshot().warmUp();
+        Thread.sleep(2);
+        employee.setEmail("henry@yahoo.com");
+        employeeRepository.save(employee);
+        var restarted = snapshot();
+        var afterUpdate = restarted.warmUp();
+
+        // then - verify the output
+        assertThat(unchanged.source()).isEqualTo("file");
+        assertThat(unchanged.rowsLoaded()).isEqualTo(2);
+        assertThat(afterUpdate.source()).isEqualTo("database");
+        assertThat(restarted.findById(employee.getId())).get()
+                .extracting(Employee::getEmail).isEqualTo("henry@yahoo.com");
+    }
+}
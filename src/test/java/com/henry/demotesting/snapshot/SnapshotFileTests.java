@@ -0,0 +1,79 @@
+package com.henry.demotesting.snapshot;
+
+import com.henry.demotesting.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SnapshotFileTests {
+
+    @TempDir
+    private Path dir;
+
+    private static List<Employee> employees() {
+        return List.of(
+                new Employee(1L, "Henry", "Nguyen", "henry@gmail.com"),
+                new Employee(2L, "Zoë", null, "zoe@gmail.com"),
+                new Employee(5L, "Tony", "Stark", "tony@gmail.com"));
+    }
+
+    //JUnit test for writing and reading back a snapshot file
+    @DisplayName("JUnit test for snapshot file round trip")
+    @Test
+    public void givenWrittenSnapshot_whenRead_thenSameRowsAndMark() throws IOException {
+
+        //given  - precondition or setup
+        Path file = dir.resolve("employees.bin");
+        SnapshotFile.write(file, new HighWaterMark(5, 3, 1_700_000_000_000_000L), employees());
+
+        //when - action or the behaviour that we are going test
+        var rows = new ArrayList<Employee>();
+        int read = SnapshotFile.read(file, rows::add);
+
+        // then - verify the output
+        assertThat(SnapshotFile.readMark(file)).contains(new HighWaterMark(5, 3, 1_700_000_000_000_000L));
+        assertThat(read).isEqualTo(3);
+        assertThat(rows).usingRecursiveFieldByFieldElementComparator().isEqualTo(employees());
+        assertThat(dir.resolve("employees.bin.tmp")).doesNotExist();
+    }
+
+    //JUnit test for a missing snapshot file
+    @DisplayName("JUnit test for the mark of a missing snapshot file")
+    @Test
+    public void givenNoFile_whenReadMark_thenEmpty() throws IOException {
+
+        //when - action or the behaviour that we are going test
+        var mark = SnapshotFile.readMark(dir.resolve("missing.bin"));
+
+        // then - verify the output
+        assertThat(mark).isEmpty();
+    }
+
+    //JUnit test for a snapshot file damaged on disk
+    @DisplayName("JUnit test for checksum verification of a snapshot file")
+    @Test
+    public void givenCorruptedFile_whenRead_thenIOException() throws IOException {
+
+        //given  - precondition or setup
+        Path file = dir.resolve("employees.bin");
+        SnapshotFile.write(file, new HighWaterMark(5, 3, 1_700_000_000_000_000L), employees());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 3] ^= 0x20;
+        Files.write(file, bytes);
+
+        //when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> SnapshotFile.read(file, employee -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+}
@@ -0,0 +1,43 @@
+package com.henry.demotesting.sql;
+
+import com.henry.demotesting.jdbc.StatementExecution;
+import com.henry.demotesting.jdbc.StatementListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements executed by the test thread since the last {@link #reset()}.
+ * Background work (schedulers, event-driven rebuilds) runs on other threads and is ignored.
+ */
+public class SqlStatementCounter implements StatementListener {
+
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private final AtomicInteger statements = new AtomicInteger();
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private volatile Thread owner;
+
+    public void reset() {
+        owner = Thread.currentThread();
+        roundTrips.set(0);
+        statements.set(0);
+        executed.clear();
+    }
+
+    @Override
+    public void afterExecute(StatementExecution execution) {
+        if (Thread.currentThread() == owner) {
+            roundTrips.incrementAndGet();
+            statements.addAndGet(execution.statementCount());
+            executed.add(execution.sql());
+        }
+    }
+
+    public void assertExecuted(int expectedStatements, int expectedRoundTrips) {
+        assertThat(statements.get()).as("SQL statements, executed: %s", executed).isEqualTo(expectedStatements);
+        assertThat(roundTrips.get()).as("SQL round trips, executed: %s", executed).isEqualTo(expectedRoundTrips);
+    }
+}
@@ -0,0 +1,16 @@
+package com.henry.demotesting.sql;
+
+import com.henry.demotesting.jdbc.JdbcInstrumentationConfig;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+@TestConfiguration(proxyBeanMethods = false)
+@Import(JdbcInstrumentationConfig.class)
+public class SqlStatementCounterConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+}
@@ -0,0 +1,78 @@
+package com.henry.demotesting.stats;
+
+import com.henry.demotesting.event.EmployeeChangedEvent;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeCountersTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @InjectMocks
+    private EmployeeCounters employeeCounters;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Henry")
+                .lastName("x")
+                .email("test@gmail.com")
+                .build();
+
+        given(employeeRepository.count()).willReturn(1L);
+        given(employeeRepository.countByEmailDomain()).willReturn(List.<Object[]>of(new Object[]{"gmail.com", 1L}));
+        given(employeeRepository.countByLastNameInitial()).willReturn(List.<Object[]>of(new Object[]{"X", 1L}));
+        employeeCounters.reconcile();
+    }
+
+    //JUnit test for counters following create, update and delete events
+    @DisplayName("JUnit test for incremental counter maintenance")
+    @Test
+    public void givenChangeEvents_whenStats_thenCountsFollowWithoutQueries() {
+
+        //given  - precondition or setup
+        var created = Employee.builder().id(2L).firstName("Ana").lastName("Young").email("ana@Example.com").build();
+        var moved = created.toBuilder().lastName("Zane").email("ana@test.com").build();
+
+        //when - action or the behaviour that we are going test
+        employeeCounters.onEmployeeChanged(EmployeeChangedEvent.created(created));
+        employeeCounters.onEmployeeChanged(EmployeeChangedEvent.updated(created, moved));
+        employeeCounters.onEmployeeChanged(EmployeeChangedEvent.deleted(employee));
+        var stats = employeeCounters.stats();
+
+        // then - verify the output
+        assertThat(stats.total()).isEqualTo(1);
+        assertThat(stats.byEmailDomain()).containsExactly(Map.entry("test.com", 1L));
+        assertThat(stats.byLastNameInitial()).containsExactly(Map.entry("Z", 1L));
+        verify(employeeRepository, times(1)).count();
+    }
+
+    //JUnit test for normalizing the grouping keys the same way as the reconciliation queries
+    @DisplayName("JUnit test for email domain and last name initial keys")
+    @Test
+    public void givenRawValues_whenNormalized_thenMatchQueryGrouping() {
+        assertThat(EmployeeCounters.emailDomain("Henry@GMAIL.com")).isEqualTo("gmail.com");
+        assertThat(EmployeeCounters.emailDomain("no-at-sign")).isEqualTo("no-at-sign");
+        assertThat(EmployeeCounters.lastNameInitial("xiloj")).isEqualTo("X");
+        assertThat(EmployeeCounters.lastNameInitial("")).isEmpty();
+    }
+}
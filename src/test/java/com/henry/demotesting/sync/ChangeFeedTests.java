@@ -0,0 +1,138 @@
+package com.henry.demotesting.sync;
+
+import com.henry.demotesting.exception.ExpiredChangeTokenException;
+import com.henry.demotesting.exception.InvalidChangeTokenException;
+import com.henry.demotesting.model.Employee;
+import com.henry.demotesting.model.EmployeeChange;
+import com.henry.demotesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// updated_at comes from the database clock, which stands still within a transaction, so each
+// write commits on its own.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ChangeFeedTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup() {
+        changeFeed = new ChangeFeed(jdbcTemplate, Duration.ZERO, Duration.ofHours(1), 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        // plain SQL, so the tombstones go as well
+        jdbcTemplate.update("delete from employees");
+    }
+
+    private Employee save(String email) {
+        return employeeRepository.save(Employee.builder()
+                .firstName("Henry")
+                .lastName("x")
+                .email(email)
+                .build());
+    }
+
+    //JUnit test for paging through creates, updates and deletes
+    @DisplayName("JUnit test for paging the change feed")
+    @Test
+    public void givenWrites_whenChangesSince_thenEachChangedRowOnceInOrder() throws InterruptedException {
+
+        //given  - precondition or setup
+        var first = save("first@gmail.com");
+        var second = save("second@gmail.com");
+        var third = save("third@gmail.com");
+        Thread.sleep(2);
+        var synced = changeFeed.changesSince(null, 100);
+        Thread.sleep(2);
+        second.setEmail("second@yahoo.com");
+        employeeRepository.saveAndFlush(second);
+        employeeRepository.softDeleteById(third.getId(), Instant.now());
+        var fourth = save("fourth@gmail.com");
+
+        //when - action or the behaviour that we are going test
+        var pages = new ArrayList<EmployeeChange>();
+        var page = changeFeed.changesSince(synced.nextToken(), 2);
+        pages.addAll(page.changes());
+        boolean firstPageHasMore = page.hasMore();
+        page = changeFeed.changesSince(page.nextToken(), 2);
+        pages.addAll(page.changes());
+
+        // then - verify the output
+        assertThat(synced.changes()).extracting(EmployeeChange::id)
+                .containsExactly(first.getId(), second.getId(), third.getId());
+        assertThat(synced.hasMore()).isFalse();
+        assertThat(firstPageHasMore).isTrue();
+        assertThat(page.hasMore()).isFalse();
+        assertThat(pages).extracting(EmployeeChange::id).containsExactly(second.getId(), third.getId(), fourth.getId());
+        assertThat(pages).extracting(EmployeeChange::type).containsExactly(
+                EmployeeChange.Type.UPSERT, EmployeeChange.Type.DELETE, EmployeeChange.Type.UPSERT);
+        assertThat(pages.get(0).employee().getEmail()).isEqualTo("second@yahoo.com");
+        assertThat(pages.get(1).employee()).isNull();
+        assertThat(changeFeed.changesSince(page.nextToken(), 2).changes()).isEmpty();
+    }
+
+    //JUnit test for tokens that can no longer be served
+    @DisplayName("JUnit test for expired and malformed change tokens")
+    @Test
+    public void givenOldOrBrokenToken_whenChangesSince_thenRejected() {
+
+        //given  - precondition or setup
+        Instant twoHoursAgo = Instant.now().minus(Duration.ofHours(2));
+        String expired = new ChangeToken(Instant.now(), 1, twoHoursAgo).encode();
+
+        //when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> changeFeed.changesSince(expired, 10))
+                .isInstanceOf(ExpiredChangeTokenException.class);
+        assertThatThrownBy(() -> changeFeed.changesSince("not-a-token", 10))
+                .isInstanceOf(InvalidChangeTokenException.class);
+    }
+
+    //JUnit test for a full sync over rows older than the retention window
+    @DisplayName("JUnit test for paging through rows older than the retention window")
+    @Test
+    public void givenRowsOlderThanRetention_whenPagingFullSync_thenEveryPageServed() {
+
+        //given  - precondition or setup
+        var first = save("first@gmail.com");
+        var second = save("second@gmail.com");
+        var third = save("third@gmail.com");
+        jdbcTemplate.update("update employees set updated_at = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(2))));
+
+        //when - action or the behaviour that we are going test
+        var firstPage = changeFeed.changesSince(null, 2);
+        var secondPage = changeFeed.changesSince(firstPage.nextToken(), 2);
+
+        // then - verify the output
+        assertThat(firstPage.hasMore()).isTrue();
+        assertThat(secondPage.hasMore()).isFalse();
+        assertThat(secondPage.changes()).extracting(EmployeeChange::id).containsExactly(third.getId());
+        assertThat(firstPage.changes()).extracting(EmployeeChange::id).containsExactly(first.getId(), second.getId());
+        assertThat(changeFeed.changesSince(secondPage.nextToken(), 2).changes()).isEmpty();
+    }
+}
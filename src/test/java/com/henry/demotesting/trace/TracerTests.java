@@ -0,0 +1,94 @@
+package com.henry.demotesting.trace;
+
+import com.henry.demotesting.jdbc.StatementExecution;
+import com.henry.demotesting.model.RequestTrace;
+import com.henry.demotesting.model.TraceSpan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TracerTests {
+
+    //JUnit test for the span tree of one traced request
+    @DisplayName("JUnit test for nested service, jdbc and serialization spans")
+    @Test
+    public void givenTracedRequest_whenSpansRecorded_thenNestedInOrder() {
+
+        //given  - precondition or setup
+        var tracer = new Tracer(1.0, 10, 256);
+        tracer.begin("PUT /api/employees/{id}");
+
+        //when - action or the behaviour that we are going test
+        try (var controller = tracer.span("EmployeeController.updateEmployee")) {
+            try (var service = tracer.span("EmployeeServiceImpl.findById")) {
+                tracer.afterExecute(new StatementExecution("select e1_0.id from employees e1_0 where e1_0.id=?",
+                        List.of(1L), 0, TimeUnit.MILLISECONDS.toNanos(2), null, true));
+            }
+            try (var service = tracer.span("EmployeeServiceImpl.updateEmployee")) {
+                tracer.afterExecute(new StatementExecution("update employees set email=? where id=?",
+                        List.of("a@b.c", 1L), 0, TimeUnit.MILLISECONDS.toNanos(1), null, true));
+            }
+        }
+        tracer.span("serialize", "application/json");
+        tracer.end(200);
+
+        // then - verify the output
+        assertThat(tracer.isTracing()).isFalse();
+        RequestTrace trace = tracer.slowest().get("PUT /api/employees/{id}").get(0);
+        assertThat(trace.status()).isEqualTo(200);
+        assertThat(trace.spans()).extracting(TraceSpan::name).containsExactly(
+                "PUT /api/employees/{id}", "EmployeeController.updateEmployee",
+                "EmployeeServiceImpl.findById", "jdbc",
+                "EmployeeServiceImpl.updateEmployee", "jdbc",
+                "serialize");
+        assertThat(trace.spans()).extracting(TraceSpan::depth).containsExactly(0, 1, 2, 3, 2, 3, 1);
+        assertThat(trace.spans().get(3).detail()).isEqualTo("select e1_0.id from employees e1_0 where e1_0.id=?");
+        assertThat(trace.spans().get(3).durationMillis()).isGreaterThanOrEqualTo(2.0);
+    }
+
+    //JUnit test for keeping only the slowest traces of an endpoint
+    @DisplayName("JUnit test for the slowest traces per endpoint")
+    @Test
+    public void givenManyRequests_whenEnded_thenOnlySlowestKept() throws InterruptedException {
+
+        //given  - precondition or setup
+        var tracer = new Tracer(1.0, 2, 256);
+
+        //when - action or the behaviour that we are going test
+        for (long millis : new long[]{1, 8, 3, 12, 2}) {
+            tracer.begin("GET /api/employees/{id}");
+            Thread.sleep(millis);
+            tracer.end(200);
+        }
+
+        // then - verify the output
+        List<RequestTrace> slowest = tracer.slowest().get("GET /api/employees/{id}");
+        assertThat(slowest).hasSize(2);
+        assertThat(slowest.get(0).durationMillis()).isGreaterThanOrEqualTo(12.0);
+        assertThat(slowest.get(1).durationMillis()).isGreaterThanOrEqualTo(8.0).isLessThan(slowest.get(0).durationMillis());
+    }
+
+    //JUnit test for requests left out of the sample
+    @DisplayName("JUnit test for unsampled requests")
+    @Test
+    public void givenZeroSampleRate_whenRequest_thenNothingRecorded() {
+
+        //given  - precondition or setup
+        var tracer = new Tracer(0.0, 10, 256);
+
+        //when - action or the behaviour that we are going test
+        boolean traced = tracer.begin("GET /api/employees");
+        try (var span = tracer.span("EmployeeServiceImpl.getEmployees")) {
+            tracer.afterExecute(new StatementExecution("select 1", List.of(), 0, 1000, null, false));
+        }
+        tracer.end(200);
+
+        // then - verify the output
+        assertThat(traced).isFalse();
+        assertThat(tracer.slowest()).isEmpty();
+    }
+}